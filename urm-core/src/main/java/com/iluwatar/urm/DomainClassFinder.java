@@ -1,20 +1,21 @@
 package com.iluwatar.urm;
 
-import com.google.common.collect.Sets;
+import com.iluwatar.urm.classpath.ClassDescriptor;
+import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import org.reflections.Reflections;
-import org.reflections.scanners.ResourcesScanner;
-import org.reflections.scanners.SubTypesScanner;
 import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
-import org.reflections.util.FilterBuilder;
 
 public class DomainClassFinder {
 
@@ -26,7 +27,7 @@ public class DomainClassFinder {
   public static ClassLoader[] classLoaders;
 
   /**
-   * method to find and filter classes using reflections.
+   * method to find and filter classes using their bytecode.
    * @param packages list of packages
    * @param ignores list of ignores
    * @param classLoader URL classloader object
@@ -34,43 +35,96 @@ public class DomainClassFinder {
    */
   public static List<Class<?>> findClasses(final List<String> packages, List<String> ignores,
                                            final URLClassLoader classLoader) {
-    switch ("myTest") {
-      default:
-        break;
-      case "ra": {
-      }
+    return findClasses(packages, ignores, classLoader, new ScanOptions());
+  }
 
-    }
-    return packages.stream()
-        .map(packageName -> getClasses(classLoader, packageName))
+  /**
+   * method to find and filter classes using their bytecode.
+   * @param packages list of packages
+   * @param ignores list of ignores
+   * @param classLoader URL classloader object
+   * @param options scan options
+   * @return list of classes
+   */
+  public static List<Class<?>> findClasses(final List<String> packages, List<String> ignores,
+                                           final URLClassLoader classLoader,
+                                           ScanOptions options) {
+    return findClassDescriptors(packages, ignores, options).stream()
+        .map(descriptor -> descriptor.load(classLoaders))
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * method to find and filter classes without loading them.
+   * @param packages list of packages
+   * @param ignores list of ignores
+   * @return list of class descriptors, sorted by class name
+   */
+  public static List<ClassDescriptor> findClassDescriptors(final List<String> packages,
+                                                           List<String> ignores) {
+    return findClassDescriptors(packages, ignores, new ScanOptions());
+  }
+
+  /**
+   * method to find and filter classes without loading them.
+   * @param packages list of packages
+   * @param ignores list of ignores
+   * @param options scan options
+   * @return list of class descriptors, sorted by class name
+   */
+  public static List<ClassDescriptor> findClassDescriptors(final List<String> packages,
+                                                           List<String> ignores,
+                                                           ScanOptions options) {
+    return getClassDescriptorsByPackage(packages, options).values().stream()
         .flatMap(Collection::stream)
         .filter(DomainClassFinder::isNotPackageInfo)
         .filter(DomainClassFinder::isNotAnonymousClass)
-        .filter((Class<?> clazz) -> !ignores.contains(clazz.getName())
-            && !ignores.contains(clazz.getSimpleName()))
-        .sorted(Comparator.comparing(Class::getName))
+        .filter((ClassDescriptor descriptor) -> !ignores.contains(descriptor.getName())
+            && !ignores.contains(descriptor.getSimpleName()))
+        .sorted(Comparator.comparing(ClassDescriptor::getName))
         .collect(Collectors.toList());
   }
 
-  private static boolean isNotPackageInfo(Class<?> clazz) {
-    return !clazz.getSimpleName().equals("package-info");
+  private static boolean isNotPackageInfo(ClassDescriptor descriptor) {
+    return !descriptor.isPackageInfo();
   }
 
-  private static boolean isNotAnonymousClass(Class<?> clazz) {
-    return !clazz.getSimpleName().equals("");
+  private static boolean isNotAnonymousClass(ClassDescriptor descriptor) {
+    return !descriptor.isAnonymous();
   }
 
-  private static Set<Class<?>> getClasses(URLClassLoader classLoader, String packageName) {
-    FilterBuilder filter = new FilterBuilder().include(FilterBuilder.prefix(packageName));
+  /**
+   * scan the classpath roots of all packages in a single pass.
+   * @param packages list of packages
+   * @param options scan options
+   * @return class descriptors bucketed by the package prefixes they match, a class matching
+   *     several prefixes shows up in each of their buckets
+   */
+  static Map<String, List<ClassDescriptor>> getClassDescriptorsByPackage(
+      final List<String> packages, ScanOptions options) {
+    Set<URL> roots = new LinkedHashSet<>();
+    for (String packageName : packages) {
+      roots.addAll(ClasspathHelper.forPackage(packageName, classLoaders));
+    }
+    Predicate<String> filter = name -> packages.stream().anyMatch(name::startsWith);
     if (!isAllowFindingInternalClasses()) {
-      filter.exclude(FilterBuilder.prefix(URM_PACKAGE));
+      filter = filter.and(name -> !name.startsWith(URM_PACKAGE));
+    }
+    List<ClassDescriptor> descriptors = options.createClasspathScanner().scan(roots, filter);
+
+    Map<String, List<ClassDescriptor>> buckets = new LinkedHashMap<>();
+    for (String packageName : packages) {
+      buckets.put(packageName, new ArrayList<>());
+    }
+    for (ClassDescriptor descriptor : descriptors) {
+      buckets.forEach((packageName, bucket) -> {
+        if (descriptor.getName().startsWith(packageName)) {
+          bucket.add(descriptor);
+        }
+      });
     }
-    Reflections reflections = new Reflections(new ConfigurationBuilder()
-        .setScanners(new SubTypesScanner(false), new ResourcesScanner())
-        .setUrls(ClasspathHelper.forPackage(packageName, classLoaders))
-        .filterInputsBy(filter));
-    return Sets.union(reflections.getSubTypesOf(Object.class),
-        reflections.getSubTypesOf(Enum.class));
+    return buckets;
   }
 
   public static boolean isAllowFindingInternalClasses() {
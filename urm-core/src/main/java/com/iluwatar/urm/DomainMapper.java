@@ -1,31 +1,92 @@
 package com.iluwatar.urm;
 
+import com.iluwatar.urm.classpath.ClassDescriptor;
+import com.iluwatar.urm.concurrent.WorkerPool;
 import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.DomainClassRegistry;
+import com.iluwatar.urm.domain.DomainGraph;
 import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.domain.LevelOfDetail;
+import com.iluwatar.urm.domain.ScannedClass;
+import com.iluwatar.urm.domain.Shard;
+import com.iluwatar.urm.domain.Sharding;
 import com.iluwatar.urm.presenters.Presenter;
 import com.iluwatar.urm.presenters.Representation;
+import com.iluwatar.urm.scanners.DomainClassIndex;
+import com.iluwatar.urm.scanners.EdgeOperations;
 import com.iluwatar.urm.scanners.FieldScanner;
 import com.iluwatar.urm.scanners.HierarchyScanner;
+import com.iluwatar.urm.scanners.IncrementalScanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URLClassLoader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Maps the domain classes and their edges and hands them to a presenter.
+ *
+ * <p>Classes flow through a staged pipeline: discovery reads the headers of all class files
+ * first, because the membership and the order of the whole domain are needed to resolve any
+ * edge. Loading, reading and scanning the classes then run on worker threads, a bounded window
+ * of classes ahead of the edge merger, which takes the scanned classes in order and waits for
+ * the class it needs next. {@link #publishDomain()} exposes the scanned classes to embedders as
+ * they leave that stage.</p>
+ */
 public class DomainMapper {
 
   private static final Logger log = LoggerFactory.getLogger(DomainMapper.class);
   private final FieldScanner fieldScanner;
   private final HierarchyScanner hierarchyScanner;
-  private final List<Class<?>> classes;
+  private final DomainClassIndex index;
+  private final List<String> classNames;
   private final Presenter presenter;
+  private final ScanOptions options;
+  private final DomainClassRegistry registry;
+  private List<Class<?>> classes;
 
   DomainMapper(Presenter presenter, final List<Class<?>> classes) {
-    this.presenter = presenter;
+    this(presenter, classes, new ScanOptions());
+  }
+
+  DomainMapper(Presenter presenter, final List<Class<?>> classes, ScanOptions options) {
+    this(presenter, classes.stream().map(Class::getName).collect(Collectors.toList()),
+        new DomainClassIndex(classes, new DomainClassRegistry(options.isMembersFromBytecode())),
+        options);
     this.classes = classes;
-    fieldScanner = new FieldScanner(classes);
-    hierarchyScanner = new HierarchyScanner(classes);
+  }
+
+  private DomainMapper(Presenter presenter, List<String> classNames, DomainClassIndex index,
+                       ScanOptions options) {
+    this.presenter = presenter;
+    this.classNames = classNames;
+    this.index = index;
+    this.options = options;
+    fieldScanner = new FieldScanner(index);
+    hierarchyScanner = new HierarchyScanner(index);
+    registry = index.getRegistry();
   }
 
   /**
@@ -34,23 +95,242 @@ public class DomainMapper {
    * @throws ClassNotFoundException exception
    */
   public Representation describeDomain() throws ClassNotFoundException {
-    List<Edge> edges = new ArrayList<>();
-    edges.addAll(fieldScanner.getEdges());
-    edges.addAll(hierarchyScanner.getEdges());
-    List<DomainClass> domainObjects = classes.stream().map(DomainClass::new)
+    Domain domain = scanDomain();
+    return presenter.describe(fit(domain.domainClasses, domain.edges));
+  }
+
+  /**
+   * render the domain into a channel without building the whole representation in memory.
+   * @param channel receives the UTF-8 encoded representation, it is left open
+   * @throws IOException if writing fails
+   */
+  public void writeDomain(WritableByteChannel channel) throws IOException {
+    Domain domain = scanDomain();
+    presenter.write(fit(domain.domainClasses, domain.edges), channel);
+  }
+
+  private LevelOfDetail fit(List<DomainClass> domainClasses, List<Edge> edges) {
+    LevelOfDetail detail = LevelOfDetail.fit(domainClasses, edges, options.getMaxNodes(),
+        options.getMaxMembers());
+    return options.isSkeleton() ? detail.skeleton() : detail;
+  }
+
+  /**
+   * render the domain as one diagram per shard, concurrently, next to an index linking them.
+   * The level of detail of the options applies to every shard on its own.
+   * A shard of index {@code dir/domain.md} is written to {@code dir/domain.<shard>.<ending>}.
+   * @param sharding how the domain is split
+   * @param index the Markdown index file, replaced if it exists
+   * @return the files of the shards in the order they are listed in the index
+   * @throws IOException if writing fails
+   */
+  public List<Path> writeShards(Sharding sharding, Path index) throws IOException {
+    Domain domain = scanDomain();
+    List<Shard> shards = sharding.split(domain.domainClasses, domain.edges);
+    Path directory = index.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    String fileName = index.getFileName().toString();
+    String baseName = fileName.lastIndexOf('.') > 0
+        ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+    List<Path> files = shards.stream()
+        .map(shard -> directory.resolve(baseName + "." + shard.getName() + "."
+            + presenter.getFileEnding()))
         .collect(Collectors.toList());
-    return presenter.describe(domainObjects, edges);
+    try {
+      // the presenter renders each shard on the worker of the shard, see WorkerPool
+      WorkerPool.map(IntStream.range(0, shards.size()).boxed().collect(Collectors.toList()),
+          i -> {
+            writeShard(shards.get(i), files.get(i));
+            return files.get(i);
+          }, options.getThreads());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writeIndex(shards, files, index);
+    return files;
+  }
+
+  private void writeShard(Shard shard, Path file) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      presenter.write(fit(shard.getDomainClasses(), shard.getEdges()), channel);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * write the index into a temporary file that replaces the index once it is complete, a
+   * partly written index would never be regenerated.
+   */
+  private static void writeIndex(List<Shard> shards, List<Path> files, Path index)
+      throws IOException {
+    Path directory = index.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(directory, index.getFileName().toString(), ".tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        writeIndex(shards, files, writer);
+      }
+      try {
+        Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static void writeIndex(List<Shard> shards, List<Path> files, Writer writer)
+      throws IOException {
+    Map<DomainClass, Integer> shardsByClass = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      for (DomainClass domainClass : shards.get(i).getDomainClasses()) {
+        shardsByClass.put(domainClass, i);
+      }
+    }
+    writer.write("# Domain shards\n\n");
+    for (int i = 0; i < shards.size(); i++) {
+      Shard shard = shards.get(i);
+      writer.write("- " + link(shard, files.get(i)) + ": "
+          + shard.getDomainClasses().size() + " classes, " + shard.getEdges().size() + " edges");
+      Set<Integer> linked = new TreeSet<>();
+      for (DomainClass stub : shard.getStubs()) {
+        linked.add(shardsByClass.get(stub));
+      }
+      if (!linked.isEmpty()) {
+        writer.write(", refers to " + linked.stream()
+            .map(j -> link(shards.get(j), files.get(j)))
+            .collect(Collectors.joining(", ")));
+      }
+      writer.write('\n');
+    }
+  }
+
+  private static String link(Shard shard, Path file) {
+    return "[" + shard.getName() + "](" + file.getFileName() + ")";
+  }
+
+  /**
+   * method to get the compact graph of the domain.
+   * @return DomainGraph of the domain classes and their edges
+   */
+  public DomainGraph mapDomain() {
+    Domain domain = scanDomain();
+    return DomainGraph.of(domain.domainClasses, domain.edges);
+  }
+
+  /**
+   * publish the domain classes with the edges found in them as they are scanned, in the order
+   * of the classes. Every subscription scans the domain anew on a thread of its own, the scan
+   * waits while the buffer of the subscriber is full and stops when the subscription is
+   * cancelled. The state file of incremental scans is not used.
+   * @return the publisher
+   */
+  public Flow.Publisher<ScannedClass> publishDomain() {
+    return subscriber -> {
+      SubmissionPublisher<ScannedClass> publisher = new SubmissionPublisher<>();
+      publisher.subscribe(subscriber);
+      Thread producer = new Thread(() -> {
+        try {
+          scanClasses(scanned -> {
+            if (!publisher.hasSubscribers()) {
+              throw new CancellationException("Subscription cancelled");
+            }
+            publisher.submit(scanned);
+          });
+          publisher.close();
+        } catch (CancellationException e) {
+          publisher.close();
+        } catch (RuntimeException | Error e) {
+          publisher.closeExceptionally(e);
+        }
+      }, "urm-publisher");
+      producer.setDaemon(true);
+      producer.start();
+    };
   }
 
-  public List<Class<?>> getClasses() {
+  private Domain scanDomain() {
+    if (options.getStateFile() != null) {
+      List<Class<?>> loaded = getClasses();
+      return new Domain(loaded.stream().map(registry::get).collect(Collectors.toList()),
+          new IncrementalScanner(loaded, fieldScanner, hierarchyScanner,
+              options.getStateFile(), options.getThreads()).getEdges());
+    }
+    List<DomainClass> domainClasses = new ArrayList<>();
+    List<Edge> fieldEdges = new ArrayList<>();
+    List<Edge> hierarchyEdges = new ArrayList<>();
+    scanClasses(scanned -> {
+      domainClasses.add(scanned.getDomainClass());
+      fieldEdges.addAll(scanned.getFieldEdges());
+      hierarchyEdges.addAll(scanned.getHierarchyEdges());
+    });
+    List<Edge> edges = new ArrayList<>(EdgeOperations.mergeBiDirectionals(fieldEdges));
+    edges.addAll(hierarchyEdges);
+    return new Domain(domainClasses, edges);
+  }
+
+  private void scanClasses(Consumer<ScannedClass> merger) {
+    // classes are loaded and scanned a few per thread ahead of the merger, in class order
+    WorkerPool.forEachInOrder(classNames, this::scanClass, options.getThreads(), scanned -> {
+      if (scanned != null) {
+        merger.accept(scanned);
+      }
+    });
+  }
+
+  private ScannedClass scanClass(String className) {
+    Class<?> clazz = index.get(className);
+    if (clazz == null) {
+      return null;
+    }
+    return new ScannedClass(registry.get(clazz), fieldScanner.getEdges(clazz),
+        hierarchyScanner.getEdges(clazz));
+  }
+
+  /**
+   * the domain classes, loaded on first call.
+   * @return the classes in the order they were found, without those that failed to load
+   */
+  public synchronized List<Class<?>> getClasses() {
+    if (classes == null) {
+      classes = WorkerPool.map(classNames, index::get, options.getThreads()).stream()
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
+    }
     return classes;
   }
 
   public static DomainMapper create(Presenter presenter, List<String> packages,
                                     List<String> ignores, URLClassLoader classLoader)
       throws ClassNotFoundException {
-    List<Class<?>> allClasses = DomainClassFinder.findClasses(packages, ignores, classLoader);
-    return new DomainMapper(presenter, allClasses);
+    return create(presenter, packages, ignores, classLoader, new ScanOptions());
+  }
+
+  /**
+   * create a mapper for the classes found in the given packages.
+   * @param presenter presenter used to describe the domain
+   * @param packages list of packages
+   * @param ignores list of ignored types
+   * @param classLoader URL classloader object
+   * @param options scan options
+   * @return the mapper
+   * @throws ClassNotFoundException exception
+   */
+  public static DomainMapper create(Presenter presenter, List<String> packages,
+                                    List<String> ignores, URLClassLoader classLoader,
+                                    ScanOptions options)
+      throws ClassNotFoundException {
+    // the classes are loaded while they are scanned
+    List<ClassDescriptor> descriptors = DomainClassFinder.findClassDescriptors(packages,
+        ignores, options);
+    return new DomainMapper(presenter,
+        descriptors.stream().map(ClassDescriptor::getName).collect(Collectors.toList()),
+        new DomainClassIndex(descriptors, DomainClassFinder.classLoaders,
+            new DomainClassRegistry(options.isMembersFromBytecode())),
+        options);
   }
 
   public static DomainMapper create(Presenter presenter, final List<String> packages,
@@ -62,4 +342,17 @@ public class DomainMapper {
       throws ClassNotFoundException {
     return create(presenter, packages, new ArrayList<>(), null);
   }
+
+  /**
+   * Domain classes and merged edges of a scan.
+   */
+  private static final class Domain {
+    private final List<DomainClass> domainClasses;
+    private final List<Edge> edges;
+
+    private Domain(List<DomainClass> domainClasses, List<Edge> edges) {
+      this.domainClasses = domainClasses;
+      this.edges = edges;
+    }
+  }
 }
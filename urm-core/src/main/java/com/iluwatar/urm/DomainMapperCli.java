@@ -1,13 +1,17 @@
 package com.iluwatar.urm;
 
+import com.iluwatar.urm.domain.Sharding;
 import com.iluwatar.urm.presenters.Presenter;
-import com.iluwatar.urm.presenters.Representation;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -46,6 +50,21 @@ public class DomainMapperCli {
     options.addOption("s", "presenter", true, "presenter to be used");
     options.addOption(OptionBuilder.withArgName("presenter")
         .hasArgs().isRequired(false).create('s'));
+    options.addOption("t", "threads", true,
+        "number of worker threads, defaults to the number of processors");
+    options.addOption("c", "cache-dir", true, "directory caching the class index of jars");
+    options.addOption(null, "cache-size", true, "size limit of the cache in megabytes");
+    options.addOption(null, "state-file", true,
+        "file keeping the scan state, later runs only rescan changed classes");
+    options.addOption(null, "max-nodes", true,
+        "maximum number of nodes, packages are collapsed into single nodes beyond it");
+    options.addOption(null, "max-members", true, "maximum number of members listed per class");
+    options.addOption(null, "skeleton", false,
+        "show only classes, their kinds and edges, members are not looked up");
+    options.addOption(null, "bytecode-members", false,
+        "read members from the class files, loading no class they refer to");
+    options.addOption(null, "shard-by", true, "write one diagram per package or component,"
+        + " the file given by -f becomes an index linking them");
     try {
       CommandLine line = parser.parse(options, args);
       String[] packages = line.getOptionValue("p").split(",[ ]*");
@@ -64,20 +83,63 @@ public class DomainMapperCli {
         }
       }
 
-      Presenter presenter = Presenter.parse(line.getOptionValue("s"));
+      ScanOptions scanOptions = new ScanOptions();
+      if (line.hasOption('t')) {
+        scanOptions.setThreads(parsePositive(line.getOptionValue('t'), "number of threads"));
+      }
+      if (line.hasOption('c')) {
+        scanOptions.setCacheDirectory(Paths.get(line.getOptionValue('c')));
+      }
+      if (line.hasOption("cache-size")) {
+        scanOptions.setCacheSize(parsePositive(line.getOptionValue("cache-size"), "cache size")
+            * 1024L * 1024L);
+      }
+      if (line.hasOption("state-file")) {
+        scanOptions.setStateFile(Paths.get(line.getOptionValue("state-file")));
+      }
+
+      if (line.hasOption("max-nodes")) {
+        scanOptions.setMaxNodes(parsePositive(line.getOptionValue("max-nodes"),
+            "number of nodes"));
+      }
+      if (line.hasOption("max-members")) {
+        scanOptions.setMaxMembers(parseNonNegative(line.getOptionValue("max-members"),
+            "number of members"));
+      }
+
+      scanOptions.setSkeleton(line.hasOption("skeleton"));
+      scanOptions.setMembersFromBytecode(line.hasOption("bytecode-members"));
+
+      Sharding sharding = null;
+      if (line.hasOption("shard-by")) {
+        sharding = parseSharding(line.getOptionValue("shard-by"));
+        if (!line.hasOption('f')) {
+          throw new ParseException("Sharded output needs an index file given by -f");
+        }
+      }
+
+      Presenter presenter = Presenter.parse(line.getOptionValue("s"), scanOptions.getThreads());
       domainMapper = DomainMapper.create(presenter, Arrays.asList(packages),
-          ignores == null ? new ArrayList<>() : Arrays.asList(ignores));
-      Representation representation = domainMapper.describeDomain();
-      if (line.hasOption('f')) {
+          ignores == null ? new ArrayList<>() : Arrays.asList(ignores), null, scanOptions);
+      if (sharding != null) {
+        String filename = line.getOptionValue('f');
+        List<Path> shards = domainMapper.writeShards(sharding, Paths.get(filename));
+        log.info("Wrote " + shards.size() + " shards indexed by " + filename);
+      } else if (line.hasOption('f')) {
         String filename = line.getOptionValue('f');
         Path parent = Paths.get(filename).getParent();
         if (parent != null) {
           Files.createDirectories(Paths.get(filename).getParent());
         }
-        Files.write(Paths.get(filename), representation.getContent().getBytes());
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+          domainMapper.writeDomain(channel);
+        }
         log.info("Wrote to file " + filename);
       } else {
-        log.info(representation.getContent());
+        domainMapper.writeDomain(Channels.newChannel(System.out));
+        System.out.println();
       }
     } catch (ParseException exp) {
       log.info(exp.getMessage());
@@ -86,4 +148,32 @@ public class DomainMapperCli {
       formatter.printHelp("java -jar urm-core.jar", options);
     }
   }
+
+  private static Sharding parseSharding(String value) throws ParseException {
+    try {
+      return Sharding.parse(value);
+    } catch (IllegalArgumentException e) {
+      throw new ParseException(e.getMessage());
+    }
+  }
+
+  private static int parsePositive(String value, String what) throws ParseException {
+    int number = parseNonNegative(value, what);
+    if (number == 0) {
+      throw new ParseException("Invalid " + what + ": " + value);
+    }
+    return number;
+  }
+
+  private static int parseNonNegative(String value, String what) throws ParseException {
+    try {
+      int number = Integer.parseInt(value.trim());
+      if (number >= 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new ParseException("Invalid " + what + ": " + value);
+  }
 }
@@ -0,0 +1,154 @@
+package com.iluwatar.urm;
+
+import com.iluwatar.urm.classpath.ClasspathScanner;
+import com.iluwatar.urm.classpath.ScanCache;
+import com.iluwatar.urm.concurrent.WorkerPool;
+import com.iluwatar.urm.domain.LevelOfDetail;
+import java.nio.file.Path;
+
+/**
+ * Settings controlling how a domain is scanned and how much of it is shown, shared by the
+ * command line and the Maven plugin.
+ */
+public class ScanOptions {
+
+  public static final long DEFAULT_CACHE_SIZE = 256L * 1024 * 1024;
+
+  private int threads = WorkerPool.DEFAULT_THREADS;
+  private Path cacheDirectory;
+  private long cacheSize = DEFAULT_CACHE_SIZE;
+  private Path stateFile;
+  private int maxNodes = LevelOfDetail.UNLIMITED;
+  private int maxMembers = LevelOfDetail.UNLIMITED;
+  private boolean skeleton;
+  private boolean membersFromBytecode;
+
+  /**
+   * number of worker threads used to scan the classpath.
+   * @return the number of threads, defaults to the number of available processors
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * set the number of worker threads.
+   * @param threads number of threads, at least one
+   */
+  public void setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is needed, got " + threads);
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * directory of the scan cache shared by all projects on this machine.
+   * @return the directory or null if jars are always scanned
+   */
+  public Path getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  public void setCacheDirectory(Path cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  public long getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * set the size limit of the scan cache.
+   * @param cacheSize size in bytes the cache is trimmed to
+   */
+  public void setCacheSize(long cacheSize) {
+    if (cacheSize < 0) {
+      throw new IllegalArgumentException("Cache size must not be negative, got " + cacheSize);
+    }
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * file keeping the scan state between runs, so only changed classes are scanned again.
+   * @return the file or null if every run scans all classes
+   */
+  public Path getStateFile() {
+    return stateFile;
+  }
+
+  public void setStateFile(Path stateFile) {
+    this.stateFile = stateFile;
+  }
+
+  /**
+   * maximum number of nodes of a diagram, packages are collapsed if there are more classes.
+   * @return the number of nodes, unlimited by default
+   */
+  public int getMaxNodes() {
+    return maxNodes;
+  }
+
+  /**
+   * set the maximum number of nodes of a diagram.
+   * @param maxNodes number of nodes, at least one
+   */
+  public void setMaxNodes(int maxNodes) {
+    if (maxNodes < 1) {
+      throw new IllegalArgumentException("At least one node is needed, got " + maxNodes);
+    }
+    this.maxNodes = maxNodes;
+  }
+
+  /**
+   * maximum number of members listed per class.
+   * @return the number of members, unlimited by default
+   */
+  public int getMaxMembers() {
+    return maxMembers;
+  }
+
+  /**
+   * set the maximum number of members listed per class.
+   * @param maxMembers number of members, zero to list none
+   */
+  public void setMaxMembers(int maxMembers) {
+    if (maxMembers < 0) {
+      throw new IllegalArgumentException("Members must not be negative, got " + maxMembers);
+    }
+    this.maxMembers = maxMembers;
+  }
+
+  /**
+   * whether diagrams show only classes, their kinds and edges.
+   * @return true if members are neither listed nor looked up
+   */
+  public boolean isSkeleton() {
+    return skeleton;
+  }
+
+  public void setSkeleton(boolean skeleton) {
+    this.skeleton = skeleton;
+  }
+
+  /**
+   * whether members are read from the class files instead of being reflected.
+   * @return true if listing members loads no class they refer to
+   */
+  public boolean isMembersFromBytecode() {
+    return membersFromBytecode;
+  }
+
+  public void setMembersFromBytecode(boolean membersFromBytecode) {
+    this.membersFromBytecode = membersFromBytecode;
+  }
+
+  /**
+   * create a classpath scanner configured by these options.
+   * @return the scanner
+   */
+  public ClasspathScanner createClasspathScanner() {
+    return new ClasspathScanner(threads,
+        cacheDirectory == null ? null : new ScanCache(cacheDirectory, cacheSize));
+  }
+}
@@ -0,0 +1,223 @@
+package com.iluwatar.urm.classpath;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+import org.reflections.ReflectionUtils;
+
+/**
+ * Lightweight description of a class, read from its class file without loading it.
+ *
+ * <p>Discovery works on descriptors only, a {@link Class} is materialised through
+ * {@link #load(ClassLoader...)} once a later stage really needs it.</p>
+ */
+public final class ClassDescriptor {
+
+  private static final String PACKAGE_INFO = "package-info";
+
+  private final String name;
+  private final String simpleName;
+  private final int access;
+  private final String superName;
+  private final List<String> interfaces;
+  private final List<FieldDescriptor> fields;
+
+  ClassDescriptor(String name, String simpleName, int access, String superName,
+                  List<String> interfaces, List<FieldDescriptor> fields) {
+    this.name = name;
+    this.simpleName = simpleName;
+    this.access = access;
+    this.superName = superName;
+    this.interfaces = interfaces;
+    this.fields = fields;
+  }
+
+  /**
+   * read the descriptor from the bytes of a class file.
+   * @param bytecode content of the class file
+   * @return the descriptor
+   */
+  public static ClassDescriptor read(byte[] bytecode) {
+    return read(bytecode, bytecode.length);
+  }
+
+  /**
+   * read the descriptor from a buffer holding a class file.
+   * @param bytecode buffer starting with the class file
+   * @param length length of the class file
+   * @return the descriptor
+   */
+  public static ClassDescriptor read(byte[] bytecode, int length) {
+    DescriptorVisitor visitor = new DescriptorVisitor();
+    new ClassReader(bytecode, 0, length).accept(visitor,
+        ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    return visitor.toDescriptor();
+  }
+
+  /**
+   * binary name of the class, e.g. {@code com.example.Outer$Inner}.
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * simple name as {@link Class#getSimpleName()} would report it.
+   * @return the simple name, empty for anonymous classes
+   */
+  public String getSimpleName() {
+    return simpleName;
+  }
+
+  public int getAccess() {
+    return access;
+  }
+
+  public String getSuperName() {
+    return superName;
+  }
+
+  public List<String> getInterfaces() {
+    return interfaces;
+  }
+
+  public List<FieldDescriptor> getFields() {
+    return fields;
+  }
+
+  /**
+   * binary names of the super types and of all classes appearing in field types.
+   * @return the referenced class names
+   */
+  public Set<String> getReferencedClassNames() {
+    Set<String> names = new LinkedHashSet<>();
+    if (superName != null) {
+      names.add(superName);
+    }
+    names.addAll(interfaces);
+    SignatureVisitor collector = new SignatureVisitor(Opcodes.ASM7) {
+      // class types nest through their type arguments, each one is closed by visitEnd
+      private final Deque<String> types = new ArrayDeque<>();
+
+      @Override
+      public void visitClassType(String name) {
+        types.push(name);
+        names.add(toBinaryName(name));
+      }
+
+      @Override
+      public void visitInnerClassType(String name) {
+        types.push(types.pop() + '$' + name);
+        names.add(toBinaryName(types.peek()));
+      }
+
+      @Override
+      public void visitEnd() {
+        types.pop();
+      }
+    };
+    for (FieldDescriptor field : fields) {
+      new SignatureReader(field.getSignature() != null ? field.getSignature()
+          : field.getDescriptor()).acceptType(collector);
+    }
+    return names;
+  }
+
+  public boolean isAnonymous() {
+    return simpleName.isEmpty();
+  }
+
+  public boolean isPackageInfo() {
+    return PACKAGE_INFO.equals(simpleName);
+  }
+
+  public boolean isInterface() {
+    return (access & Opcodes.ACC_INTERFACE) != 0;
+  }
+
+  /**
+   * load the described class without initializing it.
+   * @param classLoaders class loaders to try, the default ones if none are given
+   * @return the class or null if none of the class loaders knows it
+   */
+  public Class<?> load(ClassLoader... classLoaders) {
+    return ReflectionUtils.forName(name, classLoaders);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  static String toBinaryName(String internalName) {
+    return internalName == null ? null : internalName.replace('/', '.');
+  }
+
+  /**
+   * Collects the header and the fields of a class, used by every reader of class files.
+   */
+  static class DescriptorVisitor extends ClassVisitor {
+    private final List<FieldDescriptor> fields = new ArrayList<>();
+    private String internalName;
+    private String simpleName;
+    private int access;
+    private String superName;
+    private String[] interfaces;
+
+    DescriptorVisitor() {
+      super(Opcodes.ASM7);
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature,
+                      String superName, String[] interfaces) {
+      this.internalName = name;
+      this.access = access;
+      this.superName = superName;
+      this.interfaces = interfaces;
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+      if (name.equals(internalName)) {
+        // the InnerClasses record of the class itself carries the modifiers as declared
+        // in source and its simple name, which is missing for anonymous classes
+        this.simpleName = innerName == null ? "" : innerName;
+        this.access = access;
+      }
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor,
+                                   String signature, Object value) {
+      fields.add(new FieldDescriptor(name, access, descriptor, signature));
+      return null;
+    }
+
+    ClassDescriptor toDescriptor() {
+      if (simpleName == null) {
+        simpleName = internalName.substring(internalName.lastIndexOf('/') + 1);
+      }
+      List<String> interfaceNames = interfaces == null
+          ? Collections.emptyList()
+          : Arrays.stream(interfaces)
+              .map(ClassDescriptor::toBinaryName)
+              .collect(Collectors.toUnmodifiableList());
+      return new ClassDescriptor(toBinaryName(internalName), simpleName, access,
+          toBinaryName(superName), interfaceNames, Collections.unmodifiableList(fields));
+    }
+  }
+}
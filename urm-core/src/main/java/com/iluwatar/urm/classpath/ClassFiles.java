@@ -0,0 +1,244 @@
+package com.iluwatar.urm.classpath;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads class files straight from the directories and jars of the classpath into pooled
+ * buffers, without a resource lookup through a class loader.
+ *
+ * <p>Every jar is opened once and stays open until {@link #close()}, its entries are inflated
+ * into a buffer of the reading thread that is reused for the next class file. Class files in
+ * directories are read into the same buffer. A parser gets the buffer for the time of the call
+ * only and must not keep it.</p>
+ */
+public final class ClassFiles implements Closeable {
+
+  private static final ClassFiles SHARED = new ClassFiles();
+  private static final String CLASS_SUFFIX = ".class";
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+  private static final ThreadLocal<byte[]> BUFFERS =
+      ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+  // guarded by SHARED
+  private static int sharedUsers;
+
+  private final Map<Path, Root> roots = new ConcurrentHashMap<>();
+
+  /**
+   * the instance reading the class files of loaded classes, see {@link ClassSnapshot#of(Class)}.
+   * @return the shared instance, its jars stay open until its last user is done, see
+   *     {@link #useShared()}
+   */
+  public static ClassFiles shared() {
+    return SHARED;
+  }
+
+  /**
+   * start using the shared instance, e.g. for one goal of a build that may run several goals
+   * at once. The jars it opened are closed when the last user is done, so the build can
+   * rewrite them, and opened again by later reads.
+   * @return ends the use
+   */
+  public static Closeable useShared() {
+    synchronized (SHARED) {
+      sharedUsers++;
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    return () -> {
+      if (done.compareAndSet(false, true)) {
+        synchronized (SHARED) {
+          if (--sharedUsers == 0) {
+            SHARED.close();
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * read the class file of a loaded class from the location its class was defined from.
+   * @param clazz the class
+   * @param parser parses the class file
+   * @return the parsed class file or null if the location of the class is unknown or does
+   *     not contain its class file
+   * @throws IOException if the class file cannot be read
+   */
+  public <T> T read(Class<?> clazz, Parser<T> parser) throws IOException {
+    Path root = rootOf(clazz);
+    return root == null ? null : read(root, clazz.getName(), parser);
+  }
+
+  /**
+   * read the class file of a class from a classpath root.
+   * @param root directory or jar file
+   * @param className binary name of the class
+   * @param parser parses the class file
+   * @return the parsed class file or null if the root does not contain the class file
+   * @throws IOException if the class file cannot be read
+   */
+  public <T> T read(Path root, String className, Parser<T> parser) throws IOException {
+    String entryName = className.replace('.', '/') + CLASS_SUFFIX;
+    Root location = root(root);
+    if (location.jar == null) {
+      return readFile(root.resolve(entryName), parser);
+    }
+    // resolves the entry for the running Java version in multi-release jars
+    JarEntry entry = location.jar.getJarEntry(entryName);
+    return entry == null ? null : readEntry(location.jar, entry, parser);
+  }
+
+  /**
+   * read a class file in a directory.
+   * @param file the class file
+   * @param parser parses the class file
+   * @return the parsed class file or null if the file does not exist
+   * @throws IOException if the file cannot be read
+   */
+  public <T> T readFile(Path file, Parser<T> parser) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      int length = (int) channel.size();
+      byte[] buffer = buffer(length);
+      ByteBuffer target = ByteBuffer.wrap(buffer, 0, length);
+      while (target.hasRemaining() && channel.read(target) >= 0) {
+        // read until the buffer holds the whole file
+      }
+      return parser.parse(buffer, target.position());
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  /**
+   * read a class file in a jar.
+   * @param jar the jar, opened through {@link #jar(Path)}
+   * @param entry entry of the class file
+   * @param parser parses the class file
+   * @return the parsed class file
+   * @throws IOException if the entry cannot be read
+   */
+  public <T> T readEntry(ZipFile jar, ZipEntry entry, Parser<T> parser) throws IOException {
+    try (InputStream is = jar.getInputStream(entry)) {
+      if (entry.getSize() < 0) {
+        byte[] bytecode = is.readAllBytes();
+        return parser.parse(bytecode, bytecode.length);
+      }
+      byte[] buffer = buffer((int) entry.getSize());
+      return parser.parse(buffer, is.readNBytes(buffer, 0, (int) entry.getSize()));
+    }
+  }
+
+  /**
+   * the jar at a path, opened on first use.
+   * @param path path of the jar file
+   * @return the open jar
+   * @throws IOException if the file is no jar
+   */
+  public JarFile jar(Path path) throws IOException {
+    JarFile jar = root(path).jar;
+    if (jar == null) {
+      throw new IOException(path + " is a directory");
+    }
+    return jar;
+  }
+
+  /**
+   * the classpath root a loaded class was defined from.
+   * @param clazz the class
+   * @return directory or jar file, null if the location of the class is unknown
+   */
+  public static Path rootOf(Class<?> clazz) {
+    CodeSource source = clazz.getProtectionDomain().getCodeSource();
+    if (source == null || source.getLocation() == null) {
+      return null;
+    }
+    return ClasspathScanner.toPath(source.getLocation());
+  }
+
+  /**
+   * whether a classpath root is a jar, see {@link #jar(Path)}.
+   * @param root directory or jar file
+   * @return true for jars, false for directories
+   * @throws IOException if the root is neither
+   */
+  public boolean isJar(Path root) throws IOException {
+    return root(root).jar != null;
+  }
+
+  /**
+   * close the jars opened so far, later reads open them again.
+   */
+  @Override
+  public void close() {
+    for (Path path : roots.keySet()) {
+      Root root = roots.remove(path);
+      if (root != null && root.jar != null) {
+        try {
+          root.jar.close();
+        } catch (IOException e) {
+          // the jar is not read any more, nothing to recover
+        }
+      }
+    }
+  }
+
+  private Root root(Path path) throws IOException {
+    try {
+      return roots.computeIfAbsent(path, p -> {
+        if (Files.isDirectory(p)) {
+          return new Root(null);
+        }
+        try {
+          return new Root(new JarFile(p.toFile(), false, ZipFile.OPEN_READ,
+              JarFile.runtimeVersion()));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static byte[] buffer(int length) {
+    byte[] buffer = BUFFERS.get();
+    if (buffer.length < length) {
+      buffer = new byte[Math.max(length, buffer.length * 2)];
+      BUFFERS.set(buffer);
+    }
+    return buffer;
+  }
+
+  /**
+   * Parses a class file, the bytes are valid during the call only.
+   */
+  @FunctionalInterface
+  public interface Parser<T> {
+    T parse(byte[] bytecode, int length);
+  }
+
+  private static final class Root {
+    // null for directories
+    private final JarFile jar;
+
+    private Root(JarFile jar) {
+      this.jar = jar;
+    }
+  }
+}
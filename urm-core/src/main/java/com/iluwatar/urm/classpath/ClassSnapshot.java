@@ -0,0 +1,259 @@
+package com.iluwatar.urm.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Everything the scanners and presenters need from the class file of a domain class, collected
+ * in a single pass: the header and fields of its {@link ClassDescriptor}, its methods with their
+ * parameter names and its inner class records.
+ *
+ * <p>Snapshots of loaded classes are read once and kept as long as the class itself, see
+ * {@link #of(Class)}.</p>
+ */
+public final class ClassSnapshot {
+
+  private static final Logger log = LoggerFactory.getLogger(ClassSnapshot.class);
+
+  private static final ClassValue<Optional<ClassSnapshot>> SNAPSHOTS =
+      new ClassValue<Optional<ClassSnapshot>>() {
+        @Override
+        protected Optional<ClassSnapshot> computeValue(Class<?> type) {
+          return Optional.ofNullable(load(type));
+        }
+      };
+
+  private final ClassDescriptor descriptor;
+  private final String signature;
+  private final List<MethodDescriptor> methods;
+  private final List<InnerClassDescriptor> innerClasses;
+  private final Map<String, MethodDescriptor> methodsBySignature = new HashMap<>();
+
+  ClassSnapshot(ClassDescriptor descriptor, String signature, List<MethodDescriptor> methods,
+                List<InnerClassDescriptor> innerClasses) {
+    this.descriptor = descriptor;
+    this.signature = signature;
+    this.methods = methods;
+    this.innerClasses = innerClasses;
+    for (MethodDescriptor method : methods) {
+      methodsBySignature.put(method.getName() + method.getDescriptor(), method);
+    }
+  }
+
+  /**
+   * get the snapshot of a loaded class, reading its class file on first access. A class file
+   * that failed to be read is read again on the next access.
+   * @param clazz the class
+   * @return the snapshot or null if the class file cannot be read
+   */
+  public static ClassSnapshot of(Class<?> clazz) {
+    try {
+      return SNAPSHOTS.get(clazz).orElse(null);
+    } catch (UncheckedIOException e) {
+      // not computed, so not kept either
+      log.warn("Failed to read bytecode for class " + clazz.getName(), e.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * read the snapshot from the bytes of a class file.
+   * @param bytecode content of the class file
+   * @return the snapshot
+   */
+  public static ClassSnapshot read(byte[] bytecode) {
+    return read(bytecode, bytecode.length);
+  }
+
+  /**
+   * read the snapshot from a buffer holding a class file.
+   * @param bytecode buffer starting with the class file
+   * @param length length of the class file
+   * @return the snapshot
+   */
+  public static ClassSnapshot read(byte[] bytecode, int length) {
+    SnapshotVisitor visitor = new SnapshotVisitor();
+    // the code is visited for the local variable tables holding the parameter names
+    new ClassReader(bytecode, 0, length).accept(visitor, ClassReader.SKIP_FRAMES);
+    return visitor.toSnapshot();
+  }
+
+  private static ClassSnapshot load(Class<?> clazz) {
+    try {
+      // the class file is read from where the class was defined, a class loader lookup is
+      // left for classes without a known location such as those of generated proxies
+      ClassSnapshot snapshot = ClassFiles.shared().read(clazz, ClassSnapshot::read);
+      if (snapshot != null) {
+        return snapshot;
+      }
+      return loadResource(clazz);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      log.warn("Skipped class " + clazz.getName() + " because its bytecode could not be read",
+          e);
+    }
+    return null;
+  }
+
+  private static ClassSnapshot loadResource(Class<?> clazz) throws IOException {
+    String resource = clazz.getName().replace('.', '/') + ".class";
+    ClassLoader classLoader = clazz.getClassLoader() != null
+        ? clazz.getClassLoader() : ClassLoader.getSystemClassLoader();
+    try (InputStream is = classLoader.getResourceAsStream(resource)) {
+      if (is == null) {
+        log.warn("No class file found for class " + clazz.getName());
+        return null;
+      }
+      return read(is.readAllBytes());
+    }
+  }
+
+  public ClassDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * generic signature of the class.
+   * @return the signature or null if the class declares no type parameters and extends no
+   *     generic types
+   */
+  public String getSignature() {
+    return signature;
+  }
+
+  public List<MethodDescriptor> getMethods() {
+    return methods;
+  }
+
+  /**
+   * inner class records in the order of the class file, they cover the classes nested in this
+   * class, the class itself if it is nested and all other nested classes it refers to.
+   * @return the records
+   */
+  public List<InnerClassDescriptor> getInnerClasses() {
+    return innerClasses;
+  }
+
+  /**
+   * look up a method or constructor.
+   * @param name name of the method, {@code <init>} for constructors
+   * @param methodDescriptor method descriptor
+   * @return the method or null if the class declares no such method
+   */
+  public MethodDescriptor getMethod(String name, String methodDescriptor) {
+    return methodsBySignature.get(name + methodDescriptor);
+  }
+
+  @Override
+  public String toString() {
+    return descriptor.getName();
+  }
+
+  private static class SnapshotVisitor extends ClassDescriptor.DescriptorVisitor {
+    private final List<MethodDescriptor> methods = new ArrayList<>();
+    private final List<InnerClassDescriptor> innerClasses = new ArrayList<>();
+    private String signature;
+
+    @Override
+    public void visit(int version, int access, String name, String signature,
+                      String superName, String[] interfaces) {
+      super.visit(version, access, name, signature, superName, interfaces);
+      this.signature = signature;
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+      super.visitInnerClass(name, outerName, innerName, access);
+      innerClasses.add(new InnerClassDescriptor(ClassDescriptor.toBinaryName(name),
+          ClassDescriptor.toBinaryName(outerName), innerName, access));
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                     String signature, String[] exceptions) {
+      return new ParameterNameCollector(access, descriptor) {
+        @Override
+        public void visitEnd() {
+          methods.add(new MethodDescriptor(name, access, descriptor, signature,
+              getParameterNames()));
+        }
+      };
+    }
+
+    ClassSnapshot toSnapshot() {
+      return new ClassSnapshot(toDescriptor(), signature, Collections.unmodifiableList(methods),
+          Collections.unmodifiableList(innerClasses));
+    }
+  }
+
+  /**
+   * Takes parameter names from the MethodParameters attribute written by {@code javac
+   * -parameters}, else from the local variable table written with debug information.
+   */
+  private static class ParameterNameCollector extends MethodVisitor {
+    private final int[] slots;
+    private final String[] fromParameters;
+    private final String[] fromLocals;
+    private int parameterIndex;
+
+    ParameterNameCollector(int access, String descriptor) {
+      super(Opcodes.ASM7);
+      Type[] arguments = Type.getArgumentTypes(descriptor);
+      slots = new int[arguments.length];
+      int slot = (access & Opcodes.ACC_STATIC) != 0 ? 0 : 1;
+      for (int i = 0; i < arguments.length; i++) {
+        slots[i] = slot;
+        slot += arguments[i].getSize();
+      }
+      fromParameters = new String[arguments.length];
+      fromLocals = new String[arguments.length];
+    }
+
+    @Override
+    public void visitParameter(String name, int access) {
+      if (parameterIndex < fromParameters.length) {
+        fromParameters[parameterIndex++] = name;
+      }
+    }
+
+    @Override
+    public void visitLocalVariable(String name, String descriptor, String signature,
+                                   Label start, Label end, int index) {
+      for (int i = 0; i < slots.length; i++) {
+        if (slots[i] == index && fromLocals[i] == null) {
+          fromLocals[i] = name;
+          return;
+        }
+      }
+    }
+
+    List<String> getParameterNames() {
+      if (isComplete(fromParameters)) {
+        return Collections.unmodifiableList(Arrays.asList(fromParameters));
+      } else if (isComplete(fromLocals)) {
+        return Collections.unmodifiableList(Arrays.asList(fromLocals));
+      }
+      return null;
+    }
+
+    private static boolean isComplete(String[] names) {
+      return Arrays.stream(names).allMatch(name -> name != null);
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package com.iluwatar.urm.classpath;
+
+import com.iluwatar.urm.concurrent.WorkerPool;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Walks classpath roots (directories and jars) and reads the header of every class file
+ * whose name is accepted by a filter. No class is loaded, linked or initialized.
+ *
+ * <p>The roots are listed and the class files found in all of them are then read on a pool
+ * of worker threads. With a {@link ScanCache} the class index of a jar is read from the cache
+ * instead of the jar whenever the jar content was indexed before.</p>
+ */
+public class ClasspathScanner {
+
+  private static final Logger log = LoggerFactory.getLogger(ClasspathScanner.class);
+  private static final String CLASS_SUFFIX = ".class";
+  private static final String MODULE_INFO = "module-info";
+  private static final String META_INF = "META-INF/";
+
+  private final int threads;
+  private final ScanCache cache;
+
+  public ClasspathScanner() {
+    this(WorkerPool.DEFAULT_THREADS);
+  }
+
+  public ClasspathScanner(int threads) {
+    this(threads, null);
+  }
+
+  /**
+   * create a scanner.
+   * @param threads number of worker threads
+   * @param cache cache for the class index of jar files, null to always read the jars
+   */
+  public ClasspathScanner(int threads, ScanCache cache) {
+    this.threads = threads;
+    this.cache = cache;
+  }
+
+  /**
+   * read the descriptors of all accepted classes found in the given roots.
+   * @param roots classpath roots, directories or jar files
+   * @param nameFilter filter on binary class names, only accepted class files are read
+   * @return descriptors in classpath order, the first occurrence wins if a class is found
+   *     in several roots
+   */
+  public List<ClassDescriptor> scan(Collection<URL> roots, Predicate<String> nameFilter) {
+    try (ClassFiles classFiles = new ClassFiles()) {
+      List<ClassSource> sources = WorkerPool.map(new ArrayList<>(roots),
+          root -> listRoot(root, nameFilter, classFiles), threads).stream()
+          .flatMap(Collection::stream)
+          .collect(Collectors.toList());
+      List<ClassDescriptor> read = WorkerPool.map(sources, this::readDescriptor, threads);
+      updateCache(sources, read);
+
+      Map<String, ClassDescriptor> descriptors = new LinkedHashMap<>();
+      for (int i = 0; i < sources.size(); i++) {
+        ClassDescriptor descriptor = read.get(i);
+        if (descriptor != null && sources.get(i).accepted) {
+          descriptors.putIfAbsent(descriptor.getName(), descriptor);
+        }
+      }
+      return new ArrayList<>(descriptors.values());
+    }
+  }
+
+  private List<ClassSource> listRoot(URL root, Predicate<String> nameFilter,
+                                     ClassFiles classFiles) {
+    Path path = toPath(root);
+    try {
+      if (path != null && Files.isDirectory(path)) {
+        return listDirectory(path, nameFilter, classFiles);
+      } else if (path != null && Files.isRegularFile(path)) {
+        return listJar(path, nameFilter, classFiles);
+      }
+      log.debug("Skipped classpath root " + root + " because it is no directory or jar");
+    } catch (IOException e) {
+      log.warn("Failed to scan classpath root " + root, e);
+    }
+    return new ArrayList<>();
+  }
+
+  private List<ClassSource> listDirectory(Path directory, Predicate<String> nameFilter,
+                                          ClassFiles classFiles) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().endsWith(CLASS_SUFFIX))
+          .map(file -> {
+            String className = toClassName(directory.relativize(file).toString()
+                .replace(File.separatorChar, '/'));
+            return className != null && nameFilter.test(className)
+                ? new ClassSource(className, true, null,
+                    () -> classFiles.readFile(file, ClassDescriptor::read))
+                : null;
+          })
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private List<ClassSource> listJar(Path path, Predicate<String> nameFilter,
+                                    ClassFiles classFiles) throws IOException {
+    String cacheKey = null;
+    if (cache != null) {
+      cacheKey = cache.key(path);
+      List<ClassDescriptor> cached = cache.get(cacheKey);
+      if (cached != null) {
+        return cached.stream()
+            .filter(descriptor -> nameFilter.test(descriptor.getName()))
+            .map(descriptor -> new ClassSource(descriptor.getName(), true, null,
+                () -> descriptor))
+            .collect(Collectors.toList());
+      }
+    }
+
+    JarFile jar = classFiles.jar(path);
+    List<ClassSource> sources = new ArrayList<>();
+    Enumeration<? extends ZipEntry> entries = jar.entries();
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      String className = entry.isDirectory() ? null : toClassName(entry.getName());
+      if (className == null) {
+        continue;
+      }
+      boolean accepted = nameFilter.test(className);
+      if (accepted || cacheKey != null) {
+        // on a cache miss the whole jar is indexed, whatever the current filter is
+        sources.add(new ClassSource(className, accepted, cacheKey,
+            () -> classFiles.readEntry(jar, entry, ClassDescriptor::read)));
+      }
+    }
+    return sources;
+  }
+
+  private void updateCache(List<ClassSource> sources, List<ClassDescriptor> read) {
+    Map<String, List<ClassDescriptor>> indexes = new LinkedHashMap<>();
+    for (int i = 0; i < sources.size(); i++) {
+      String cacheKey = sources.get(i).cacheKey;
+      if (cacheKey != null) {
+        List<ClassDescriptor> index = indexes.computeIfAbsent(cacheKey, k -> new ArrayList<>());
+        if (read.get(i) != null) {
+          index.add(read.get(i));
+        }
+      }
+    }
+    if (!indexes.isEmpty()) {
+      indexes.forEach(cache::put);
+      cache.evict();
+    }
+  }
+
+  private ClassDescriptor readDescriptor(ClassSource source) {
+    try {
+      return source.reader.read();
+    } catch (IOException e) {
+      log.warn("Failed to read bytecode for class " + source.className, e);
+    } catch (RuntimeException e) {
+      // ASM rejects class files it does not understand, e.g. of a too recent version
+      log.warn("Skipped class " + source.className + " because its bytecode could not be read",
+          e);
+    }
+    return null;
+  }
+
+  /**
+   * convert the path of a class file relative to its root into a binary class name.
+   * @param relativePath path using '/' as separator
+   * @return the class name or null if the path does not denote a regular class
+   */
+  static String toClassName(String relativePath) {
+    if (!relativePath.endsWith(CLASS_SUFFIX) || relativePath.startsWith(META_INF)) {
+      return null;
+    }
+    String name = relativePath.substring(0, relativePath.length() - CLASS_SUFFIX.length());
+    if (name.endsWith(MODULE_INFO)) {
+      return null;
+    }
+    return name.replace('/', '.');
+  }
+
+  static Path toPath(URL url) {
+    String spec = url.toExternalForm();
+    if (spec.startsWith("jar:")) {
+      int separator = spec.indexOf("!/");
+      spec = spec.substring(4, separator < 0 ? spec.length() : separator);
+    }
+    if (!spec.startsWith("file:")) {
+      return null;
+    }
+    try {
+      return Paths.get(new URI(spec));
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      // class loaders happily hand out URLs with unescaped characters such as spaces
+      return Paths.get(URLDecoder.decode(spec.substring(5), StandardCharsets.UTF_8));
+    }
+  }
+
+  private interface DescriptorReader {
+    ClassDescriptor read() throws IOException;
+  }
+
+  private static class ClassSource {
+    private final String className;
+    private final boolean accepted;
+    private final String cacheKey;
+    private final DescriptorReader reader;
+
+    ClassSource(String className, boolean accepted, String cacheKey, DescriptorReader reader) {
+      this.className = className;
+      this.accepted = accepted;
+      this.cacheKey = cacheKey;
+      this.reader = reader;
+    }
+  }
+}
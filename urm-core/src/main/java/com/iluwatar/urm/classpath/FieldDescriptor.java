@@ -0,0 +1,48 @@
+package com.iluwatar.urm.classpath;
+
+/**
+ * A field as declared in a class file, with its raw descriptor and generic signature.
+ */
+public final class FieldDescriptor {
+
+  private final String name;
+  private final int access;
+  private final String descriptor;
+  private final String signature;
+
+  FieldDescriptor(String name, int access, String descriptor, String signature) {
+    this.name = name;
+    this.access = access;
+    this.descriptor = descriptor;
+    this.signature = signature;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getAccess() {
+    return access;
+  }
+
+  /**
+   * type descriptor of the field, e.g. {@code Ljava/util/List;}.
+   * @return the descriptor
+   */
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * generic signature of the field, e.g. {@code Ljava/util/List<Lcom/example/Task;>;}.
+   * @return the signature or null if the field type is not generic
+   */
+  public String getSignature() {
+    return signature;
+  }
+
+  @Override
+  public String toString() {
+    return name + " : " + (signature != null ? signature : descriptor);
+  }
+}
@@ -0,0 +1,56 @@
+package com.iluwatar.urm.classpath;
+
+/**
+ * An entry of the InnerClasses attribute of a class file.
+ */
+public final class InnerClassDescriptor {
+
+  private final String name;
+  private final String outerName;
+  private final String innerName;
+  private final int access;
+
+  InnerClassDescriptor(String name, String outerName, String innerName, int access) {
+    this.name = name;
+    this.outerName = outerName;
+    this.innerName = innerName;
+    this.access = access;
+  }
+
+  /**
+   * binary name of the inner class.
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * binary name of the enclosing class.
+   * @return the name or null for local and anonymous classes
+   */
+  public String getOuterName() {
+    return outerName;
+  }
+
+  /**
+   * simple name of the inner class.
+   * @return the name or null for anonymous classes
+   */
+  public String getInnerName() {
+    return innerName;
+  }
+
+  /**
+   * modifiers of the inner class as declared in source.
+   * @return the access flags
+   */
+  public int getAccess() {
+    return access;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
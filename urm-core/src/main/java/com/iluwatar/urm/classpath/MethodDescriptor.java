@@ -0,0 +1,62 @@
+package com.iluwatar.urm.classpath;
+
+import java.util.List;
+
+/**
+ * A method or constructor as declared in a class file, with the names of its parameters.
+ */
+public final class MethodDescriptor {
+
+  private final String name;
+  private final int access;
+  private final String descriptor;
+  private final String signature;
+  private final List<String> parameterNames;
+
+  MethodDescriptor(String name, int access, String descriptor, String signature,
+                   List<String> parameterNames) {
+    this.name = name;
+    this.access = access;
+    this.descriptor = descriptor;
+    this.signature = signature;
+    this.parameterNames = parameterNames;
+  }
+
+  /**
+   * name of the method.
+   * @return the name, {@code <init>} for constructors
+   */
+  public String getName() {
+    return name;
+  }
+
+  public int getAccess() {
+    return access;
+  }
+
+  /**
+   * method descriptor, e.g. {@code (Ljava/lang/String;I)V}.
+   * @return the descriptor
+   */
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  public String getSignature() {
+    return signature;
+  }
+
+  /**
+   * names of all parameters in the descriptor, including synthetic ones such as the outer
+   * instance passed to constructors of inner classes.
+   * @return the names or null if the class file records none
+   */
+  public List<String> getParameterNames() {
+    return parameterNames;
+  }
+
+  @Override
+  public String toString() {
+    return name + descriptor;
+  }
+}
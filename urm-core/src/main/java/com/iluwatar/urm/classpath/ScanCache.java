@@ -0,0 +1,316 @@
+package com.iluwatar.urm.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of the class index of jar files, keyed by the SHA-256 hash of the jar content.
+ *
+ * <p>The hash of a jar is stored with the size and modification time of the jar at its real
+ * path, so a jar is only read in full again once it changed.</p>
+ *
+ * <p>The cache directory can be shared by any number of projects and processes, entries are
+ * written to a temporary file and moved into place. Each entry is touched when it is read and
+ * the least recently used entries are deleted once the directory grows beyond its size
+ * limit.</p>
+ */
+public class ScanCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ScanCache.class);
+  private static final int MAGIC = 0x55524d49;
+  private static final int VERSION = 1;
+  private static final String SUFFIX = ".v" + VERSION + ".idx";
+  private static final String STAMP_SUFFIX = ".v" + VERSION + ".stamp";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path directory;
+  private final long maxBytes;
+
+  /**
+   * create a cache.
+   * @param directory directory holding the index files, created on first write
+   * @param maxBytes size the directory is trimmed to after writing new entries
+   */
+  public ScanCache(Path directory, long maxBytes) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * compute the key of a jar file, hashing its content only if it changed since the key was
+   * last computed.
+   * @param jar the jar file
+   * @return hex encoded SHA-256 hash of its content
+   * @throws IOException if the jar cannot be read
+   */
+  public String key(Path jar) throws IOException {
+    Path realPath = jar.toRealPath();
+    BasicFileAttributes attributes = Files.readAttributes(realPath, BasicFileAttributes.class);
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    Path stamp = directory.resolve(
+        hex(newDigest().digest(realPath.toString().getBytes(StandardCharsets.UTF_8)))
+            + STAMP_SUFFIX);
+    String key = readStamp(stamp, size, lastModified);
+    if (key == null) {
+      key = contentKey(realPath);
+      String contentKey = key;
+      write(stamp, out -> {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(size);
+        out.writeLong(lastModified);
+        out.writeUTF(contentKey);
+      });
+    }
+    return key;
+  }
+
+  private static String contentKey(Path jar) throws IOException {
+    MessageDigest digest = newDigest();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (InputStream is = Files.newInputStream(jar)) {
+      int read;
+      while ((read = is.read(buffer)) > 0) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return hex(digest.digest());
+  }
+
+  private static String readStamp(Path stamp, long size, long lastModified) {
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(stamp))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != size
+          || in.readLong() != lastModified) {
+        return null;
+      }
+      String key = in.readUTF();
+      Files.setLastModifiedTime(stamp, FileTime.fromMillis(System.currentTimeMillis()));
+      return key;
+    } catch (IOException e) {
+      // missing, outdated or written by another version, the jar is hashed again
+      return null;
+    }
+  }
+
+  /**
+   * read the class index stored for a key.
+   * @param key key of the jar
+   * @return the descriptors of all classes of the jar or null if nothing usable is cached
+   */
+  public List<ClassDescriptor> get(String key) {
+    Path file = directory.resolve(key + SUFFIX);
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+      List<ClassDescriptor> descriptors = readIndex(in);
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+      return descriptors;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      log.warn("Discarding unreadable cache entry " + file, e);
+      deleteQuietly(file);
+      return null;
+    }
+  }
+
+  /**
+   * store the class index of a jar.
+   * @param key key of the jar
+   * @param descriptors descriptors of all classes of the jar
+   */
+  public void put(String key, List<ClassDescriptor> descriptors) {
+    write(directory.resolve(key + SUFFIX), out -> writeIndex(out, descriptors));
+  }
+
+  // written to a temporary file first, so readers in other processes never see a partial file
+  private void write(Path file, Content content) {
+    Path temp = null;
+    try {
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+        content.writeTo(out);
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to write cache entry " + file, e);
+      if (temp != null) {
+        deleteQuietly(temp);
+      }
+    }
+  }
+
+  /**
+   * delete the least recently used entries until the cache fits into its size limit.
+   */
+  public void evict() {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    List<Entry> entries;
+    try (Stream<Path> files = Files.list(directory)) {
+      entries = files
+          .filter(file -> file.getFileName().toString().endsWith(SUFFIX)
+              || file.getFileName().toString().endsWith(STAMP_SUFFIX))
+          .map(Entry::of)
+          .filter(Objects::nonNull)
+          .sorted(Comparator.comparing((Entry entry) -> entry.lastUsed))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      log.warn("Failed to list cache directory " + directory, e);
+      return;
+    }
+    long size = entries.stream().mapToLong(entry -> entry.size).sum();
+    for (Entry entry : entries) {
+      if (size <= maxBytes) {
+        break;
+      }
+      deleteQuietly(entry.file);
+      size -= entry.size;
+    }
+  }
+
+  static List<ClassDescriptor> readIndex(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Not a class index of version " + VERSION);
+    }
+    int count = in.readInt();
+    List<ClassDescriptor> descriptors = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String name = in.readUTF();
+      String simpleName = in.readUTF();
+      int access = in.readInt();
+      String superName = readNullableUtf(in);
+      List<String> interfaces = new ArrayList<>();
+      for (int j = in.readUnsignedShort(); j > 0; j--) {
+        interfaces.add(in.readUTF());
+      }
+      List<FieldDescriptor> fields = new ArrayList<>();
+      for (int j = in.readUnsignedShort(); j > 0; j--) {
+        fields.add(new FieldDescriptor(in.readUTF(), in.readInt(), in.readUTF(),
+            readNullableUtf(in)));
+      }
+      descriptors.add(new ClassDescriptor(name, simpleName, access, superName,
+          Collections.unmodifiableList(interfaces), Collections.unmodifiableList(fields)));
+    }
+    return descriptors;
+  }
+
+  static void writeIndex(DataOutputStream out, List<ClassDescriptor> descriptors)
+      throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(descriptors.size());
+    for (ClassDescriptor descriptor : descriptors) {
+      out.writeUTF(descriptor.getName());
+      out.writeUTF(descriptor.getSimpleName());
+      out.writeInt(descriptor.getAccess());
+      writeNullableUtf(out, descriptor.getSuperName());
+      out.writeShort(descriptor.getInterfaces().size());
+      for (String interfaceName : descriptor.getInterfaces()) {
+        out.writeUTF(interfaceName);
+      }
+      out.writeShort(descriptor.getFields().size());
+      for (FieldDescriptor field : descriptor.getFields()) {
+        out.writeUTF(field.getName());
+        out.writeInt(field.getAccess());
+        out.writeUTF(field.getDescriptor());
+        writeNullableUtf(out, field.getSignature());
+      }
+    }
+  }
+
+  private static String readNullableUtf(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void writeNullableUtf(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return sb.toString();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.debug("Failed to delete " + file, e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Content {
+    void writeTo(DataOutputStream out) throws IOException;
+  }
+
+  private static class Entry {
+    private final Path file;
+    private final long size;
+    private final FileTime lastUsed;
+
+    Entry(Path file, long size, FileTime lastUsed) {
+      this.file = file;
+      this.size = size;
+      this.lastUsed = lastUsed;
+    }
+
+    static Entry of(Path file) {
+      try {
+        return new Entry(file, Files.size(file), Files.getLastModifiedTime(file));
+      } catch (IOException e) {
+        // deleted by a concurrent eviction
+        return null;
+      }
+    }
+  }
+}
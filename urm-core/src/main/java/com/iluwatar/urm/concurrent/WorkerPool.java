@@ -0,0 +1,147 @@
+package com.iluwatar.urm.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs independent units of work on a fork-join pool of a given size. Work started from a
+ * thread of such a pool, e.g. a presenter rendering one of several shards concurrently, runs
+ * on that thread, so nested pools never multiply the number of threads.
+ */
+public final class WorkerPool {
+
+  public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+  private static final int RESULTS_PER_THREAD = 4;
+
+  /**
+   * apply the mapper to all items, concurrently if more than one thread is allowed.
+   * @param items items to map
+   * @param mapper function applied to each item, must be safe to call from several threads
+   * @param threads maximum number of threads to use
+   * @param <T> type of the items
+   * @param <R> type of the results
+   * @return the results in the order of the items
+   */
+  public static <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper,
+                                   int threads) {
+    if (isSequential(items, threads)) {
+      List<R> results = new ArrayList<>(items.size());
+      for (T item : items) {
+        results.add(mapper.apply(item));
+      }
+      return results;
+    }
+    ForkJoinPool pool = newPool(threads);
+    try {
+      // a parallel stream started from within a pool runs its tasks in that pool
+      return pool.submit(() -> items.parallelStream()
+          .map(mapper)
+          .collect(Collectors.<R>toList())).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for workers", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * apply the mapper to all items concurrently and hand the results to the consumer in the
+   * order of the items. Only a few results per thread are held at any time, so the results of
+   * all items never have to fit into memory at once.
+   * @param items items to map
+   * @param mapper function applied to each item, must be safe to call from several threads
+   * @param threads maximum number of threads to use
+   * @param consumer receives the results one by one on the calling thread
+   * @param <T> type of the items
+   * @param <R> type of the results
+   * @param <E> type of the exception thrown by the consumer
+   * @throws E if the consumer fails, the remaining items are not mapped then
+   */
+  public static <T, R, E extends Exception> void forEachInOrder(
+      List<T> items, Function<? super T, ? extends R> mapper, int threads,
+      ResultConsumer<? super R, E> consumer) throws E {
+    if (isSequential(items, threads)) {
+      for (T item : items) {
+        consumer.accept(mapper.apply(item));
+      }
+      return;
+    }
+    ForkJoinPool pool = newPool(threads);
+    int window = threads * RESULTS_PER_THREAD;
+    Deque<CompletableFuture<? extends R>> pending = new ArrayDeque<>(window);
+    try {
+      for (T item : items) {
+        pending.add(CompletableFuture.supplyAsync(() -> mapper.apply(item), pool));
+        if (pending.size() >= window) {
+          consumer.accept(join(pending.poll()));
+        }
+      }
+      while (!pending.isEmpty()) {
+        consumer.accept(join(pending.poll()));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static boolean isSequential(List<?> items, int threads) {
+    return threads <= 1 || items.size() <= 1 || Thread.currentThread() instanceof Worker;
+  }
+
+  private static ForkJoinPool newPool(int threads) {
+    return new ForkJoinPool(threads, Worker::new, null, false);
+  }
+
+  private static <R> R join(CompletableFuture<R> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Receives the results of {@link #forEachInOrder}.
+   * @param <R> type of the results
+   * @param <E> type of the exception thrown
+   */
+  @FunctionalInterface
+  public interface ResultConsumer<R, E extends Exception> {
+    void accept(R result) throws E;
+  }
+
+  /**
+   * A thread of a pool, it runs any work it starts itself.
+   */
+  private static final class Worker extends ForkJoinWorkerThread {
+    private Worker(ForkJoinPool pool) {
+      super(pool);
+    }
+  }
+
+  private WorkerPool() {
+    // private constructor for utility class
+  }
+}
@@ -0,0 +1,287 @@
+package com.iluwatar.urm.domain;
+
+import com.iluwatar.urm.classpath.ClassSnapshot;
+import com.iluwatar.urm.classpath.FieldDescriptor;
+import com.iluwatar.urm.classpath.MethodDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.ClassUtils;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * The members of a class as declared in its class file, an alternative to reflecting them.
+ *
+ * <p>Names, modifiers and types come from the descriptors and {@code Signature} attributes of
+ * the {@link ClassSnapshot}, rendered by {@link Signatures} and cached in the
+ * {@link TypeNames} of the run, so no class referred to by a
+ * member is loaded and members referring to missing classes are listed as well.</p>
+ */
+final class BytecodeMembers {
+
+  private static final String CONSTRUCTOR = "<init>";
+  private static final String STATIC_INITIALIZER = "<clinit>";
+  private static final String ENUM_VALUES = "$VALUES";
+
+  static Stream<DomainField> fields(Class<?> clazz, ClassSnapshot snapshot,
+                                    TypeNames names) {
+    return snapshot.getDescriptor().getFields().stream()
+        .filter(f -> !isSynthetic(f.getAccess()))
+        .filter(f -> !(clazz.isEnum() && f.getName().equals(ENUM_VALUES)))
+        .filter(f -> !DomainClass.IGNORED_FIELDS.contains(f.getName()))
+        .map(f -> new BytecodeField(clazz, f, names));
+  }
+
+  static Stream<DomainConstructor> constructors(Class<?> clazz, ClassSnapshot snapshot,
+                                                TypeNames names) {
+    return snapshot.getMethods().stream()
+        .filter(m -> !isSynthetic(m.getAccess()) && m.getName().equals(CONSTRUCTOR))
+        .map(m -> new BytecodeConstructor(clazz, m, names));
+  }
+
+  static Stream<DomainMethod> methods(Class<?> clazz, ClassSnapshot snapshot,
+                                      TypeNames names) {
+    return snapshot.getMethods().stream()
+        .filter(m -> !isSynthetic(m.getAccess()) && !m.getName().equals(CONSTRUCTOR)
+            && !m.getName().equals(STATIC_INITIALIZER))
+        .map(m -> new BytecodeMethod(clazz, m, names));
+  }
+
+  private static boolean isSynthetic(int access) {
+    return (access & Opcodes.ACC_SYNTHETIC) != 0;
+  }
+
+  // the parameter list rendered like DomainExecutable#getUmlName renders reflected parameters
+  private static String parameters(Class<?> declaringClass, MethodDescriptor method,
+                                   Signatures.MethodSignature signature) {
+    List<String> types = signature.parameterTypes;
+    List<String> names = method.getParameterNames();
+    // the outer instance passed to constructors of inner classes is no declared parameter,
+    // generic signatures leave it out already
+    int skipped = 0;
+    if (method.getName().equals(CONSTRUCTOR) && takesOuterInstance(declaringClass, method)) {
+      skipped = 1;
+      if (method.getSignature() == null) {
+        types = types.subList(1, types.size());
+      }
+    }
+    boolean named = DomainExecutable.useParameterNames && names != null
+        && names.size() == types.size() + skipped;
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < types.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      if (named) {
+        sb.append(names.get(i + skipped)).append(" : ");
+      }
+      sb.append(types.get(i));
+    }
+    return sb.toString();
+  }
+
+  private static boolean takesOuterInstance(Class<?> declaringClass, MethodDescriptor method) {
+    Type[] parameterTypes = Type.getArgumentTypes(method.getDescriptor());
+    return TypeUtils.takesOuterInstance(declaringClass,
+        parameterTypes.length > 0 ? parameterTypes[0].getClassName() : null);
+  }
+
+  private static Signatures.MethodSignature signature(MethodDescriptor method,
+                                                     TypeNames names) {
+    return names.method(method.getSignature() != null
+        ? method.getSignature() : method.getDescriptor());
+  }
+
+  // the member of a class file among the reflected members of its class
+  private static <T extends Executable> T reflect(Class<?> declaringClass,
+                                                  MethodDescriptor method, T[] candidates) {
+    for (T candidate : candidates) {
+      if (candidate instanceof Constructor) {
+        if (Type.getConstructorDescriptor((Constructor<?>) candidate)
+            .equals(method.getDescriptor())) {
+          return candidate;
+        }
+      } else if (candidate.getName().equals(method.getName())
+          && Type.getMethodDescriptor((Method) candidate).equals(method.getDescriptor())) {
+        return candidate;
+      }
+    }
+    throw new IllegalStateException(declaringClass.getName() + " declares no "
+        + method.getName() + method.getDescriptor());
+  }
+
+  private static final class BytecodeField extends DomainField {
+    private final Class<?> declaringClass;
+    private final FieldDescriptor field;
+    private final TypeNames names;
+
+    private BytecodeField(Class<?> declaringClass, FieldDescriptor field, TypeNames names) {
+      super(null);
+      this.declaringClass = declaringClass;
+      this.field = field;
+      this.names = names;
+    }
+
+    @Override
+    public String getUmlName() {
+      if ((field.getAccess() & Opcodes.ACC_ENUM) != 0) {
+        return field.getName();
+      }
+      return field.getName() + " : " + names.type(field.getSignature() != null
+          ? field.getSignature() : field.getDescriptor());
+    }
+
+    @Override
+    public Visibility getVisibility() {
+      return TypeUtils.getVisibility(field.getAccess());
+    }
+
+    /**
+     * the type of the field, the only part of the member model that loads a class.
+     * @return the type
+     */
+    @Override
+    public DomainClass getType() {
+      String typeName = Type.getType(field.getDescriptor()).getClassName();
+      try {
+        return new DomainClass(ClassUtils.getClass(declaringClass.getClassLoader(), typeName,
+            false));
+      } catch (ClassNotFoundException e) {
+        throw new TypeNotPresentException(typeName, e);
+      }
+    }
+
+    @Override
+    public boolean isStatic() {
+      return Modifier.isStatic(field.getAccess());
+    }
+
+    @Override
+    public boolean isAbstract() {
+      return Modifier.isAbstract(field.getAccess());
+    }
+  }
+
+  private static final class BytecodeConstructor extends DomainConstructor {
+    private final Class<?> declaringClass;
+    private final MethodDescriptor method;
+    private final TypeNames names;
+
+    private BytecodeConstructor(Class<?> declaringClass, MethodDescriptor method,
+                                TypeNames names) {
+      super(null);
+      this.declaringClass = declaringClass;
+      this.method = method;
+      this.names = names;
+    }
+
+    @Override
+    protected String getName() {
+      return TypeUtils.getSimpleName(declaringClass);
+    }
+
+    /**
+     * the reflected constructor, looked up on each call, which loads the classes it refers to.
+     * @return the constructor
+     */
+    @Override
+    protected Constructor getExecutable() {
+      return reflect(declaringClass, method, declaringClass.getDeclaredConstructors());
+    }
+
+    @Override
+    public String getUmlName() {
+      return getName() + "(" + parameters(declaringClass, method, signature(method, names)) + ")";
+    }
+
+    @Override
+    public Class<?> getDeclaringClass() {
+      return declaringClass;
+    }
+
+    @Override
+    public Visibility getVisibility() {
+      return TypeUtils.getVisibility(method.getAccess());
+    }
+
+    @Override
+    public boolean isStatic() {
+      return false;
+    }
+
+    @Override
+    public boolean isAbstract() {
+      return false;
+    }
+  }
+
+  private static final class BytecodeMethod extends DomainMethod {
+    private static final String VOID = "void";
+    private static final String VOID_CLASS = "Void";
+
+    private final Class<?> declaringClass;
+    private final MethodDescriptor method;
+    private final TypeNames names;
+
+    private BytecodeMethod(Class<?> declaringClass, MethodDescriptor method,
+                           TypeNames names) {
+      super(null);
+      this.declaringClass = declaringClass;
+      this.method = method;
+      this.names = names;
+    }
+
+    @Override
+    protected String getName() {
+      return method.getName();
+    }
+
+    /**
+     * the reflected method, looked up on each call, which loads the classes it refers to.
+     * @return the method
+     */
+    @Override
+    protected Method getExecutable() {
+      return reflect(declaringClass, method, declaringClass.getDeclaredMethods());
+    }
+
+    @Override
+    public String getUmlName() {
+      Signatures.MethodSignature signature = signature(method, names);
+      String umlName = getName() + "(" + parameters(declaringClass, method, signature) + ")";
+      if (VOID.equals(signature.returnType) || VOID_CLASS.equals(signature.returnType)) {
+        return umlName;
+      }
+      return umlName + " : " + signature.returnType;
+    }
+
+    @Override
+    public Class<?> getDeclaringClass() {
+      return declaringClass;
+    }
+
+    @Override
+    public Visibility getVisibility() {
+      return TypeUtils.getVisibility(method.getAccess());
+    }
+
+    @Override
+    public boolean isStatic() {
+      return Modifier.isStatic(method.getAccess());
+    }
+
+    @Override
+    public boolean isAbstract() {
+      return Modifier.isAbstract(method.getAccess());
+    }
+  }
+
+  private BytecodeMembers() {
+    // private constructor for utility class
+  }
+}
@@ -1,13 +1,14 @@
 package com.iluwatar.urm.domain;
 
+import com.iluwatar.urm.classpath.ClassSnapshot;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.Logger;
@@ -15,26 +16,55 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Created by moe on 09.04.16.
+ *
+ * <p>Equality is defined by the class only, the member lists are computed lazily and not part
+ * of it.</p>
  */
-public class DomainClass {
+public final class DomainClass {
 
   private static final Logger log = LoggerFactory.getLogger(DomainClass.class);
   protected static final List<String> IGNORED_METHODS = Arrays.asList("$jacocoInit");
   protected static final List<String> IGNORED_FIELDS = Arrays.asList("$jacocoData");
 
-  private Class<?> clazz;
-  private String description;
-  private transient List<DomainField> fieldList;
-  private transient List<DomainConstructor> constructorList;
-  private transient List<DomainMethod> methodList;
+  private final Class<?> clazz;
+  private final int hash;
+  private final boolean membersFromBytecode;
+  private final TypeNames names;
+  // built on first use, possibly by several threads at once, and published as immutable lists
+  private transient volatile List<DomainField> fieldList;
+  private transient volatile List<DomainConstructor> constructorList;
+  private transient volatile List<DomainMethod> methodList;
 
-  public DomainClass(Class<?> clazz, String description) {
+  public DomainClass(Class<?> clazz) {
+    this(clazz, false);
+  }
+
+  /**
+   * create a domain class.
+   * @param clazz the class
+   * @param membersFromBytecode whether members are read from the class file instead of being
+   *     reflected, see {@link BytecodeMembers}
+   */
+  DomainClass(Class<?> clazz, boolean membersFromBytecode) {
+    this(clazz, membersFromBytecode, TypeNames.UNCACHED);
+  }
+
+  /**
+   * create a domain class of a run.
+   * @param clazz the class
+   * @param membersFromBytecode whether members are read from the class file instead of being
+   *     reflected, see {@link BytecodeMembers}
+   * @param names the type names of the run, shared by the members of all its classes
+   */
+  DomainClass(Class<?> clazz, boolean membersFromBytecode, TypeNames names) {
     this.clazz = clazz;
-    this.description = description;
+    this.hash = calculateHashCode();
+    this.membersFromBytecode = membersFromBytecode;
+    this.names = names;
   }
 
-  public DomainClass(Class<?> clazz) {
-    this(clazz, null);
+  public Class<?> getClazz() {
+    return clazz;
   }
 
   private boolean isLambda(String s) {
@@ -53,25 +83,27 @@ public class DomainClass {
     return clazz.getSimpleName();
   }
 
-  public String getDescription() {
-    return description;
-  }
-
   /**
    * method to get declared fields of the class.
    * @return
    */
   public List<DomainField> getFields() {
-    if (fieldList == null) {
-      fieldList = Arrays.stream(clazz.getDeclaredFields())
-          .filter(f -> !(f.getDeclaringClass().isEnum() && f.getName().equals("$VALUES")))
-          .filter(f -> !f.isSynthetic())
-          .filter(f -> !IGNORED_FIELDS.contains(f.getName()))
-          .map(DomainField::new)
+    List<DomainField> fields = fieldList;
+    if (fields == null) {
+      ClassSnapshot snapshot = getSnapshot();
+      Stream<DomainField> declared = snapshot != null
+          ? BytecodeMembers.fields(clazz, snapshot, names)
+          : Arrays.stream(clazz.getDeclaredFields())
+              .filter(f -> !(f.getDeclaringClass().isEnum() && f.getName().equals("$VALUES")))
+              .filter(f -> !f.isSynthetic())
+              .filter(f -> !IGNORED_FIELDS.contains(f.getName()))
+              .map(f -> new DomainField(f, names));
+      fields = declared
           .sorted(Comparator.comparing(DomainField::getUmlName))
-          .collect(Collectors.toList());
+          .collect(Collectors.toUnmodifiableList());
+      fieldList = fields;
     }
-    return fieldList;
+    return fields;
   }
 
   /**
@@ -79,19 +111,25 @@ public class DomainClass {
    * @return
    */
   public List<DomainConstructor> getConstructors() {
-    if (constructorList == null) {
+    List<DomainConstructor> constructors = constructorList;
+    if (constructors == null) {
       if (clazz.isEnum()) {
         // Enums only have the Native Constructor...
-        constructorList = Collections.emptyList();
+        constructors = Collections.emptyList();
       } else {
-        constructorList = Arrays.stream(clazz.getDeclaredConstructors())
-            .filter(c -> !c.isSynthetic())
-            .map(DomainConstructor::new)
+        ClassSnapshot snapshot = getSnapshot();
+        Stream<DomainConstructor> declared = snapshot != null
+            ? BytecodeMembers.constructors(clazz, snapshot, names)
+            : Arrays.stream(clazz.getDeclaredConstructors())
+                .filter(c -> !c.isSynthetic())
+                .map(c -> new DomainConstructor(c, names));
+        constructors = declared
             .sorted(Comparator.comparing(DomainConstructor::getUmlName))
-            .collect(Collectors.toList());
+            .collect(Collectors.toUnmodifiableList());
       }
+      constructorList = constructors;
     }
-    return constructorList;
+    return constructors;
   }
 
   /**
@@ -99,30 +137,75 @@ public class DomainClass {
    * @return
    */
   public List<DomainMethod> getMethods() {
-    if (methodList == null) {
-      methodList = Arrays.stream(clazz.getDeclaredMethods())
-          .filter(m -> !m.isSynthetic())
-          .map(DomainMethod::new)
+    List<DomainMethod> methods = methodList;
+    if (methods == null) {
+      ClassSnapshot snapshot = getSnapshot();
+      Stream<DomainMethod> declared = snapshot != null
+          ? BytecodeMembers.methods(clazz, snapshot, names)
+          : Arrays.stream(clazz.getDeclaredMethods())
+              .filter(m -> !m.isSynthetic())
+              .map(m -> new DomainMethod(m, names));
+      methods = declared
           .filter(m -> !IGNORED_METHODS.contains(m.getName()) && !isLambda(m.getName()))
           .sorted(Comparator.comparing(DomainExecutable::getUmlName))
-          .collect(Collectors.toList());
+          .collect(Collectors.toUnmodifiableList());
+      methodList = methods;
     }
-    return methodList;
+    return methods;
+  }
+
+  /**
+   * the members listed within a budget, fields first, then constructors and methods.
+   * @param maxMembers maximum number of members listed
+   * @return the members to list and the number of members left out
+   */
+  public DomainMembers getMembers(int maxMembers) {
+    List<DomainField> fields = getFields();
+    List<DomainConstructor> constructors = getConstructors();
+    List<DomainMethod> methods = getMethods();
+    int total = fields.size() + constructors.size() + methods.size();
+    if (total <= maxMembers) {
+      return new DomainMembers(fields, constructors, methods, 0);
+    }
+    int fieldCount = Math.min(fields.size(), maxMembers);
+    int constructorCount = Math.min(constructors.size(), maxMembers - fieldCount);
+    int methodCount = Math.min(methods.size(), maxMembers - fieldCount - constructorCount);
+    return new DomainMembers(fields.subList(0, fieldCount),
+        constructors.subList(0, constructorCount), methods.subList(0, methodCount),
+        total - maxMembers);
+  }
+
+  // classes without a readable class file fall back to reflection
+  private ClassSnapshot getSnapshot() {
+    return membersFromBytecode ? ClassSnapshot.of(clazz) : null;
+  }
+
+  private int calculateHashCode() {
+    return Objects.hash(clazz);
   }
 
   @Override
   public int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+    return hash;
   }
 
   @Override
   public boolean equals(Object obj) {
-    return EqualsBuilder.reflectionEquals(this, obj);
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof DomainClass)) {
+      return false;
+    }
+    DomainClass other = (DomainClass) obj;
+    return hash == other.hash && Objects.equals(clazz, other.clazz);
   }
 
   @Override
   public String toString() {
-    return ReflectionToStringBuilder.toString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    return new ReflectionToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+        .setExcludeFieldNames("hash", "names")
+        .toString();
   }
 
   public Visibility getVisibility() {
@@ -0,0 +1,50 @@
+package com.iluwatar.urm.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one canonical {@link DomainClass} per {@link Class} for the duration of a run.
+ *
+ * <p>All edges and the presenter share these instances, so the members of a class are
+ * reflected once however many edges it takes part in. The names of their member types are
+ * rendered once for all classes of the run, see {@link TypeNames}. The registry is safe to use
+ * from the scanner worker threads.</p>
+ */
+public final class DomainClassRegistry {
+
+  private final Map<Class<?>, DomainClass> domainClasses = new ConcurrentHashMap<>();
+  private final boolean membersFromBytecode;
+  private final TypeNames typeNames = new TypeNames();
+
+  public DomainClassRegistry() {
+    this(false);
+  }
+
+  /**
+   * create a registry.
+   * @param membersFromBytecode whether the members of the domain classes are read from their
+   *     class files instead of being reflected, which loads no class a member refers to
+   */
+  public DomainClassRegistry(boolean membersFromBytecode) {
+    this.membersFromBytecode = membersFromBytecode;
+  }
+
+  /**
+   * get the canonical domain class of a class, creating it on first use.
+   * @param clazz the class
+   * @return the domain class, the same instance on every call for the same class
+   */
+  public DomainClass get(Class<?> clazz) {
+    DomainClass domainClass = domainClasses.get(clazz);
+    if (domainClass == null) {
+      domainClass = domainClasses.computeIfAbsent(clazz,
+          c -> new DomainClass(c, membersFromBytecode, typeNames));
+    }
+    return domainClass;
+  }
+
+  public int size() {
+    return domainClasses.size();
+  }
+}
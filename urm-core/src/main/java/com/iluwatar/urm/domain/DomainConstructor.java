@@ -11,6 +11,10 @@ public class DomainConstructor extends DomainExecutable<Constructor> {
     super(constructor);
   }
 
+  DomainConstructor(Constructor constructor, TypeNames names) {
+    super(constructor, names);
+  }
+
   @Override
   protected String getName() {
     // to prevent it from printing FQN
@@ -1,11 +1,5 @@
 package com.iluwatar.urm.domain;
 
-import com.thoughtworks.paranamer.AdaptiveParanamer;
-
-import com.thoughtworks.paranamer.BytecodeReadingParanamer;
-import com.thoughtworks.paranamer.DefaultParanamer;
-import com.thoughtworks.paranamer.NullParanamer;
-import com.thoughtworks.paranamer.Paranamer;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
@@ -16,22 +10,29 @@ import java.util.Arrays;
  */
 public abstract class DomainExecutable<T extends Executable> {
 
-  private static final boolean useParameterNames = Boolean.parseBoolean(
+  static final boolean useParameterNames = Boolean.parseBoolean(
       System.getProperty("useParameterNames", "true"));
-  private static final String JAVA_IDENTIFIER_REGEX = "([a-zA-Z_$][a-zA-Z\\d_$]*)";
 
-  private static final Paranamer PARANAMER = new AdaptiveParanamer(new DefaultParanamer(),
-      new BytecodeReadingParanamer(), new NullParanamer());
   private T executable;
+  private final TypeNames names;
 
   public DomainExecutable(T executable) {
+    this(executable, TypeNames.UNCACHED);
+  }
+
+  DomainExecutable(T executable, TypeNames names) {
     this.executable = executable;
+    this.names = names;
   }
 
   protected T getExecutable() {
     return executable;
   }
 
+  TypeNames getTypeNames() {
+    return names;
+  }
+
   protected String getName() {
     return executable.getName();
   }
@@ -41,28 +42,30 @@ public abstract class DomainExecutable<T extends Executable> {
    * @return
    */
   public String getUmlName() {
-    // Have to do the old for loop way because Paranamer doesnt have a nice interface
-    String[] parameterNames = PARANAMER.lookupParameterNames(executable, false);
     Parameter[] parameters = executable.getParameters();
+    String[] parameterNames = ParameterNames.of(executable);
+    if (parameterNames.length != parameters.length) {
+      parameterNames = new String[0];
+    }
 
-    Class<?> declaringClass = executable.getDeclaringClass();
-    if ((declaringClass.isLocalClass() || declaringClass.isMemberClass())
-        && !Modifier.isStatic(declaringClass.getModifiers())
-        && (this instanceof DomainConstructor)) {
+    if (this instanceof DomainConstructor && parameters.length > 0
+        && TypeUtils.takesOuterInstance(executable.getDeclaringClass(),
+            parameters[0].getType().getName())) {
       // An inner class of any sort (local or member) that isnt static holds a reference to its
       // declaring/parent class. This reference is passed into the constructor
       // as the first argument, so in that case we have to ignore
       // the first argument from 'parameters'
       parameters = Arrays.copyOfRange(parameters, 1, parameters.length);
-      // But due to this parameter being hidden, it isnt found by Paranamer
-      // and thus the parameterNames array mustn't be cut
+      if (parameterNames.length != 0) {
+        parameterNames = Arrays.copyOfRange(parameterNames, 1, parameterNames.length);
+      }
     }
 
     StringBuilder sb = new StringBuilder();
     for (int i = 0; i < parameters.length; i++) {
       String paraName = ((parameterNames.length != 0 && useParameterNames)
           ? parameterNames[i] + " : " : "");
-      sb.append(paraName + TypeUtils.getSimpleName(parameters[i].getParameterizedType()));
+      sb.append(paraName + names.getSimpleName(parameters[i].getParameterizedType()));
 
       if (i != parameters.length - 1) {
         sb.append(", ");
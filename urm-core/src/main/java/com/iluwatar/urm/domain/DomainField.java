@@ -8,9 +8,15 @@ import java.lang.reflect.Modifier;
  */
 public class DomainField {
   private Field field;
+  private final TypeNames names;
 
   public DomainField(Field field) {
+    this(field, TypeNames.UNCACHED);
+  }
+
+  DomainField(Field field, TypeNames names) {
     this.field = field;
+    this.names = names;
   }
 
   /**
@@ -22,7 +28,7 @@ public class DomainField {
       // If this is an enum constant, we dont need the type
       return field.getName();
     }
-    return field.getName() + " : " + TypeUtils.getSimpleName(field.getGenericType());
+    return field.getName() + " : " + names.getSimpleName(field.getGenericType());
   }
 
   public Visibility getVisibility() {
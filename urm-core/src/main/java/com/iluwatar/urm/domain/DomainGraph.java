@@ -0,0 +1,242 @@
+package com.iluwatar.urm.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, immutable form of a domain model: classes and packages are int ids of a
+ * {@link SymbolTable}, the edges of every {@link EdgeType} are kept in compressed sparse row
+ * arrays indexed by the id of their source class.
+ *
+ * <p>An edge costs a few bytes in primitive arrays instead of an {@link Edge} object, and the
+ * edges of a class are adjacent in memory. {@link #toClasses()} and {@link #toEdges()} turn the
+ * graph back into the lists the presenters work on.</p>
+ */
+public final class DomainGraph {
+
+  private static final byte NO_DIRECTION = 0;
+  private static final byte UNI_DIRECTIONAL = 1;
+  private static final byte BI_DIRECTIONAL = 2;
+
+  private final SymbolTable symbols;
+  private final Map<EdgeType, Adjacency> adjacencies;
+  private final int edgeCount;
+
+  private DomainGraph(SymbolTable symbols, Map<EdgeType, Adjacency> adjacencies,
+                      int edgeCount) {
+    this.symbols = symbols;
+    this.adjacencies = adjacencies;
+    this.edgeCount = edgeCount;
+  }
+
+  /**
+   * build the graph of a model.
+   * @param domainClasses the domain classes
+   * @param edges the edges between them, their end points are added to the symbols if needed
+   * @return the graph
+   */
+  public static DomainGraph of(List<DomainClass> domainClasses, List<Edge> edges) {
+    SymbolTable symbols = new SymbolTable();
+    for (DomainClass domainClass : domainClasses) {
+      symbols.addDomainClass(domainClass);
+    }
+    int[] sources = new int[edges.size()];
+    int[] targets = new int[edges.size()];
+    int[] sourceDescriptions = new int[edges.size()];
+    int[] targetDescriptions = new int[edges.size()];
+    Map<String, Integer> descriptionIds = new HashMap<>();
+    List<String> descriptions = new ArrayList<>();
+    Map<EdgeType, Integer> counts = new EnumMap<>(EdgeType.class);
+    for (int i = 0; i < edges.size(); i++) {
+      Edge edge = edges.get(i);
+      sources[i] = symbols.add(edge.source);
+      targets[i] = symbols.add(edge.target);
+      sourceDescriptions[i] = descriptionId(edge.sourceDescription, descriptionIds, descriptions);
+      targetDescriptions[i] = descriptionId(edge.targetDescription, descriptionIds, descriptions);
+      counts.merge(edge.type, 1, Integer::sum);
+    }
+
+    String[] descriptionTable = descriptions.toArray(new String[0]);
+    Map<EdgeType, Adjacency> adjacencies = new EnumMap<>(EdgeType.class);
+    int classCount = symbols.getClassCount();
+    counts.forEach((type, count) ->
+        adjacencies.put(type, new Adjacency(classCount, count, descriptionTable)));
+    for (int i = 0; i < edges.size(); i++) {
+      adjacencies.get(edges.get(i).type).offsets[sources[i] + 1]++;
+    }
+    for (Adjacency adjacency : adjacencies.values()) {
+      for (int i = 0; i < classCount; i++) {
+        adjacency.offsets[i + 1] += adjacency.offsets[i];
+      }
+    }
+    // fill the rows in edge order, so the edges of a class keep their order
+    Map<EdgeType, int[]> next = new EnumMap<>(EdgeType.class);
+    adjacencies.forEach((type, adjacency) ->
+        next.put(type, Arrays.copyOf(adjacency.offsets, classCount)));
+    for (int i = 0; i < edges.size(); i++) {
+      Edge edge = edges.get(i);
+      Adjacency adjacency = adjacencies.get(edge.type);
+      int slot = next.get(edge.type)[sources[i]]++;
+      adjacency.targets[slot] = targets[i];
+      adjacency.directions[slot] = directionFlag(edge.direction);
+      adjacency.sourceDescriptions[slot] = sourceDescriptions[i];
+      adjacency.targetDescriptions[slot] = targetDescriptions[i];
+      adjacency.indices[slot] = i;
+    }
+    return new DomainGraph(symbols, adjacencies, edges.size());
+  }
+
+  private static int descriptionId(String description, Map<String, Integer> descriptionIds,
+                                   List<String> descriptions) {
+    if (description == null) {
+      return -1;
+    }
+    return descriptionIds.computeIfAbsent(description, d -> {
+      descriptions.add(d);
+      return descriptions.size() - 1;
+    });
+  }
+
+  private static byte directionFlag(Direction direction) {
+    if (direction == null) {
+      return NO_DIRECTION;
+    }
+    return direction == Direction.BI_DIRECTIONAL ? BI_DIRECTIONAL : UNI_DIRECTIONAL;
+  }
+
+  public SymbolTable getSymbols() {
+    return symbols;
+  }
+
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * the edges of one type.
+   * @param type type of the edges
+   * @return the adjacency of the type, empty if there is no edge of the type
+   */
+  public Adjacency getAdjacency(EdgeType type) {
+    Adjacency adjacency = adjacencies.get(type);
+    return adjacency != null ? adjacency
+        : new Adjacency(symbols.getClassCount(), 0, new String[0]);
+  }
+
+  /**
+   * adapter for the presenters.
+   * @return the domain classes in the order they were given
+   */
+  public List<DomainClass> toClasses() {
+    List<DomainClass> domainClasses = new ArrayList<>(symbols.getDomainClassCount());
+    for (int i = 0; i < symbols.getDomainClassCount(); i++) {
+      domainClasses.add(symbols.getDomainClass(i));
+    }
+    return domainClasses;
+  }
+
+  /**
+   * adapter for the presenters.
+   * @return the edges in the order they were given
+   */
+  public List<Edge> toEdges() {
+    Edge[] edges = new Edge[edgeCount];
+    adjacencies.forEach((type, adjacency) -> {
+      for (int source = 0; source < symbols.getClassCount(); source++) {
+        for (int edge = adjacency.start(source); edge < adjacency.end(source); edge++) {
+          edges[adjacency.getIndex(edge)] = new Edge(symbols.getDomainClass(source),
+              adjacency.getSourceDescription(edge),
+              symbols.getDomainClass(adjacency.getTarget(edge)),
+              adjacency.getTargetDescription(edge), type, adjacency.getDirection(edge));
+        }
+      }
+    });
+    return new ArrayList<>(Arrays.asList(edges));
+  }
+
+  /**
+   * Edges of one type in compressed sparse row form: the edges of source class {@code i} are
+   * the slots {@code start(i)} to {@code end(i) - 1} of the per edge arrays.
+   */
+  public static final class Adjacency {
+    private final int[] offsets;
+    private final int[] targets;
+    private final byte[] directions;
+    private final int[] sourceDescriptions;
+    private final int[] targetDescriptions;
+    // position of the edge in the list the graph was built from
+    private final int[] indices;
+    private final String[] descriptions;
+
+    private Adjacency(int classCount, int edgeCount, String[] descriptions) {
+      this.offsets = new int[classCount + 1];
+      this.targets = new int[edgeCount];
+      this.directions = new byte[edgeCount];
+      this.sourceDescriptions = new int[edgeCount];
+      this.targetDescriptions = new int[edgeCount];
+      this.indices = new int[edgeCount];
+      this.descriptions = descriptions;
+    }
+
+    public int size() {
+      return targets.length;
+    }
+
+    public int start(int source) {
+      return offsets[source];
+    }
+
+    public int end(int source) {
+      return offsets[source + 1];
+    }
+
+    public int getTarget(int edge) {
+      return targets[edge];
+    }
+
+    /**
+     * position of an edge among the edges the graph was built from.
+     * @param edge slot of the edge
+     * @return the index of the edge in the list given to {@link DomainGraph#of(List, List)}
+     */
+    public int getIndex(int edge) {
+      return indices[edge];
+    }
+
+    public boolean isBiDirectional(int edge) {
+      return directions[edge] == BI_DIRECTIONAL;
+    }
+
+    /**
+     * direction of an edge.
+     * @param edge slot of the edge
+     * @return the direction, null for edges without one such as {@link EdgeType#EXTENDS}
+     */
+    public Direction getDirection(int edge) {
+      switch (directions[edge]) {
+        case UNI_DIRECTIONAL:
+          return Direction.UNI_DIRECTIONAL;
+        case BI_DIRECTIONAL:
+          return Direction.BI_DIRECTIONAL;
+        default:
+          return null;
+      }
+    }
+
+    public String getSourceDescription(int edge) {
+      return description(sourceDescriptions[edge]);
+    }
+
+    public String getTargetDescription(int edge) {
+      return description(targetDescriptions[edge]);
+    }
+
+    private String description(int id) {
+      return id < 0 ? null : descriptions[id];
+    }
+  }
+}
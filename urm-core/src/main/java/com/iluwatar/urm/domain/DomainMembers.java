@@ -0,0 +1,42 @@
+package com.iluwatar.urm.domain;
+
+import java.util.List;
+
+/**
+ * The members of a domain class listed within a budget, see
+ * {@link DomainClass#getMembers(int)}.
+ */
+public final class DomainMembers {
+  private final List<DomainField> fields;
+  private final List<DomainConstructor> constructors;
+  private final List<DomainMethod> methods;
+  private final int elided;
+
+  DomainMembers(List<DomainField> fields, List<DomainConstructor> constructors,
+                List<DomainMethod> methods, int elided) {
+    this.fields = fields;
+    this.constructors = constructors;
+    this.methods = methods;
+    this.elided = elided;
+  }
+
+  public List<DomainField> getFields() {
+    return fields;
+  }
+
+  public List<DomainConstructor> getConstructors() {
+    return constructors;
+  }
+
+  public List<DomainMethod> getMethods() {
+    return methods;
+  }
+
+  /**
+   * the number of members left out.
+   * @return 0 if all members are listed
+   */
+  public int getElided() {
+    return elided;
+  }
+}
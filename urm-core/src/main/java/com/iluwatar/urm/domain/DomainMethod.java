@@ -14,6 +14,10 @@ public class DomainMethod extends DomainExecutable<Method> {
     super(method);
   }
 
+  DomainMethod(Method method, TypeNames names) {
+    super(method, names);
+  }
+
   @Override
   public String getUmlName() {
     // Executable by itself has no return type, so add it here
@@ -22,7 +26,7 @@ public class DomainMethod extends DomainExecutable<Method> {
       // But if it returns nothing (aka void) we done output any type
       return super.getUmlName();
     }
-    return super.getUmlName() + " : " + TypeUtils.getSimpleName(returnType);
+    return super.getUmlName() + " : " + getTypeNames().getSimpleName(returnType);
   }
 
 }
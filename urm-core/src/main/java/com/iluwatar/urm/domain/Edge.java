@@ -1,47 +1,91 @@
 package com.iluwatar.urm.domain;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Objects;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
-public class Edge {
+/**
+ * Immutable relation between two domain classes, edges are equal if all their fields are.
+ *
+ * <p>The classes at both ends are shared by all edges, what is specific to one edge, like the
+ * name of the field holding the relation, is kept in the descriptions of its ends.</p>
+ */
+public final class Edge {
 
   public final DomainClass source;
   public final DomainClass target;
+  public final String sourceDescription;
+  public final String targetDescription;
   public final EdgeType type;
   public final Direction direction;
+  private final int hash;
 
   /**
    * constructor for the class.
    * @param source DomainClass.
+   * @param sourceDescription description of the source end, e.g. a field name, may be null.
    * @param target DomainClass.
+   * @param targetDescription description of the target end, may be null.
    * @param type EdgeType.
    * @param direction Direction.
    */
-  public Edge(DomainClass source, DomainClass target, EdgeType type, Direction direction) {
+  public Edge(DomainClass source, String sourceDescription, DomainClass target,
+              String targetDescription, EdgeType type, Direction direction) {
     this.source = source;
+    this.sourceDescription = sourceDescription;
     this.target = target;
+    this.targetDescription = targetDescription;
     this.type = type;
     this.direction = direction;
+    this.hash = calculateHashCode();
+  }
+
+  /**
+   * constructor for an edge without descriptions.
+   * @param source DomainClass.
+   * @param target DomainClass.
+   * @param type EdgeType.
+   * @param direction Direction.
+   */
+  public Edge(DomainClass source, DomainClass target, EdgeType type, Direction direction) {
+    this(source, null, target, null, type, direction);
   }
 
   public Edge(DomainClass source, DomainClass target, EdgeType type) {
     this(source, target, type, null);
   }
 
+  private int calculateHashCode() {
+    return Objects.hash(source, sourceDescription, target, targetDescription, type, direction);
+  }
+
   @Override
-  public final int hashCode() {
-    return HashCodeBuilder.reflectionHashCode(this);
+  public int hashCode() {
+    return hash;
   }
 
   @Override
-  public final boolean equals(Object obj) {
-    return EqualsBuilder.reflectionEquals(this, obj);
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Edge)) {
+      return false;
+    }
+    Edge other = (Edge) obj;
+    return hash == other.hash
+        && type == other.type
+        && direction == other.direction
+        && Objects.equals(source, other.source)
+        && Objects.equals(target, other.target)
+        && Objects.equals(sourceDescription, other.sourceDescription)
+        && Objects.equals(targetDescription, other.targetDescription);
   }
 
   @Override
   public String toString() {
-    return ReflectionToStringBuilder.toString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    return new ReflectionToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+        .setExcludeFieldNames("hash")
+        .toString();
   }
 }
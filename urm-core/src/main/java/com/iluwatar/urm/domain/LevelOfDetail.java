@@ -0,0 +1,235 @@
+package com.iluwatar.urm.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * What of a domain model fits into a diagram of limited size.
+ *
+ * <p>If there are more domain classes than nodes allowed, whole packages are collapsed into
+ * summary nodes, all at the deepest package level whose number of packages fits, and the edges
+ * between their classes are aggregated into one edge per pair of packages, weighted by the
+ * number of edges it stands for. Classes that are shown list at most a given number of
+ * members, a skeleton shows only the kinds of the classes and never looks at their members.</p>
+ */
+public final class LevelOfDetail {
+
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  private final List<DomainClass> domainClasses;
+  private final List<Edge> edges;
+  private final List<PackageSummary> packages;
+  private final List<PackageEdge> packageEdges;
+  private final int maxMembers;
+  private final boolean skeleton;
+  // the classes in the collapsed packages, null if no package is collapsed
+  private final LevelOfDetail expanded;
+
+  private LevelOfDetail(List<DomainClass> domainClasses, List<Edge> edges,
+                        List<PackageSummary> packages, List<PackageEdge> packageEdges,
+                        int maxMembers) {
+    this(domainClasses, edges, packages, packageEdges, maxMembers, false, null);
+  }
+
+  private LevelOfDetail(List<DomainClass> domainClasses, List<Edge> edges,
+                        List<PackageSummary> packages, List<PackageEdge> packageEdges,
+                        int maxMembers, boolean skeleton, LevelOfDetail expanded) {
+    this.domainClasses = domainClasses;
+    this.edges = edges;
+    this.packages = packages;
+    this.packageEdges = packageEdges;
+    this.maxMembers = maxMembers;
+    this.skeleton = skeleton;
+    this.expanded = expanded;
+  }
+
+  /**
+   * the complete model.
+   * @param domainClasses the domain classes
+   * @param edges the edges between them
+   * @return all classes and edges, with all members
+   */
+  public static LevelOfDetail full(List<DomainClass> domainClasses, List<Edge> edges) {
+    return new LevelOfDetail(domainClasses, edges, Collections.emptyList(),
+        Collections.emptyList(), UNLIMITED);
+  }
+
+  /**
+   * fit a model into a budget.
+   * @param domainClasses the domain classes
+   * @param edges the edges between them
+   * @param maxNodes maximum number of nodes of the diagram
+   * @param maxMembers maximum number of members listed per class
+   * @return the classes and edges if they fit, otherwise the packages of the deepest level that
+   *     fits, or the top level packages if none does
+   */
+  public static LevelOfDetail fit(List<DomainClass> domainClasses, List<Edge> edges,
+                                  int maxNodes, int maxMembers) {
+    if (domainClasses.size() <= maxNodes) {
+      return new LevelOfDetail(domainClasses, edges, Collections.emptyList(),
+          Collections.emptyList(), maxMembers);
+    }
+    Set<String> packageNames = new HashSet<>();
+    int depth = 1;
+    for (DomainClass domainClass : domainClasses) {
+      if (packageNames.add(domainClass.getPackageName())) {
+        depth = Math.max(depth, domainClass.getPackageName().split("\\.").length);
+      }
+    }
+    int level = depth;
+    while (level > 1 && countPrefixes(packageNames, level) > maxNodes) {
+      level--;
+    }
+
+    Map<String, Integer> classCounts = new TreeMap<>();
+    for (DomainClass domainClass : domainClasses) {
+      classCounts.merge(prefix(domainClass.getPackageName(), level), 1, Integer::sum);
+    }
+    Map<String, Map<String, Integer>> weights = new TreeMap<>();
+    for (Edge edge : edges) {
+      String source = prefix(edge.source.getPackageName(), level);
+      String target = prefix(edge.target.getPackageName(), level);
+      // edges within a package disappear in its node, edges leaving the domain are dropped
+      if (!source.equals(target) && classCounts.containsKey(source)
+          && classCounts.containsKey(target)) {
+        weights.computeIfAbsent(source, s -> new TreeMap<>()).merge(target, 1, Integer::sum);
+      }
+    }
+    List<PackageSummary> packages = new ArrayList<>();
+    classCounts.forEach((name, count) -> packages.add(new PackageSummary(name, count)));
+    List<PackageEdge> packageEdges = new ArrayList<>();
+    weights.forEach((source, targets) -> targets.forEach((target, weight) ->
+        packageEdges.add(new PackageEdge(source, target, weight))));
+    return new LevelOfDetail(Collections.emptyList(), Collections.emptyList(),
+        Collections.unmodifiableList(packages), Collections.unmodifiableList(packageEdges),
+        maxMembers, false, new LevelOfDetail(domainClasses, edges, Collections.emptyList(),
+            Collections.emptyList(), maxMembers));
+  }
+
+  private static int countPrefixes(Set<String> packageNames, int level) {
+    Set<String> prefixes = new HashSet<>();
+    for (String packageName : packageNames) {
+      prefixes.add(prefix(packageName, level));
+    }
+    return prefixes.size();
+  }
+
+  private static String prefix(String packageName, int level) {
+    int end = -1;
+    for (int i = 0; i < level; i++) {
+      end = packageName.indexOf('.', end + 1);
+      if (end < 0) {
+        return packageName;
+      }
+    }
+    return packageName.substring(0, end);
+  }
+
+  /**
+   * the same level of detail without any members.
+   * @return a skeleton showing the classes, their kinds and edges, or the collapsed packages
+   */
+  public LevelOfDetail skeleton() {
+    return new LevelOfDetail(domainClasses, edges, packages, packageEdges, 0, true,
+        expanded == null ? null : expanded.skeleton());
+  }
+
+  /**
+   * the same level of detail showing the classes of collapsed packages, for presenters that
+   * cannot draw packages.
+   * @return the classes and edges of the model with the same members, this level of detail
+   *     if no package is collapsed
+   */
+  public LevelOfDetail expand() {
+    return expanded == null ? this : expanded;
+  }
+
+  /**
+   * whether packages were collapsed.
+   * @return true if the diagram shows packages instead of classes
+   */
+  public boolean isCollapsed() {
+    return !packages.isEmpty();
+  }
+
+  public List<DomainClass> getDomainClasses() {
+    return domainClasses;
+  }
+
+  public List<Edge> getEdges() {
+    return edges;
+  }
+
+  public List<PackageSummary> getPackages() {
+    return packages;
+  }
+
+  public List<PackageEdge> getPackageEdges() {
+    return packageEdges;
+  }
+
+  public int getMaxMembers() {
+    return maxMembers;
+  }
+
+  /**
+   * whether members are left out entirely, not even counted.
+   * @return true if the classes are shown without any member
+   */
+  public boolean isSkeleton() {
+    return skeleton;
+  }
+
+  /**
+   * A package standing for all domain classes in it and its sub packages.
+   */
+  public static final class PackageSummary {
+    private final String name;
+    private final int classCount;
+
+    PackageSummary(String name, int classCount) {
+      this.name = name;
+      this.classCount = classCount;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getClassCount() {
+      return classCount;
+    }
+  }
+
+  /**
+   * The edges from the classes of one package to the classes of another.
+   */
+  public static final class PackageEdge {
+    private final String source;
+    private final String target;
+    private final int weight;
+
+    PackageEdge(String source, String target, int weight) {
+      this.source = source;
+      this.target = target;
+      this.weight = weight;
+    }
+
+    public String getSource() {
+      return source;
+    }
+
+    public String getTarget() {
+      return target;
+    }
+
+    public int getWeight() {
+      return weight;
+    }
+  }
+}
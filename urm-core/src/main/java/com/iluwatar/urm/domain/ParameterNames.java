@@ -0,0 +1,101 @@
+package com.iluwatar.urm.domain;
+
+import com.iluwatar.urm.classpath.ClassSnapshot;
+import com.iluwatar.urm.classpath.MethodDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.objectweb.asm.Type;
+
+/**
+ * Parameter names of all methods and constructors of a class, resolved together on first use
+ * and kept as long as the class.
+ *
+ * <p>Names recorded in the {@code MethodParameters} attribute are taken from reflection, the
+ * others from the local variable tables of the {@link ClassSnapshot} of the class, which is
+ * only read if some executable needs it.</p>
+ */
+final class ParameterNames {
+
+  private static final String[] NONE = new String[0];
+  private static final ClassValue<ParameterNames> PARAMETER_NAMES =
+      new ClassValue<ParameterNames>() {
+        @Override
+        protected ParameterNames computeValue(Class<?> type) {
+          return new ParameterNames(type);
+        }
+      };
+
+  private final Map<Executable, String[]> namesByExecutable;
+
+  private ParameterNames(Class<?> clazz) {
+    Map<Executable, String[]> names = new HashMap<>();
+    try {
+      ClassSnapshot snapshot = null;
+      boolean snapshotRead = false;
+      for (Executable executable : declaredExecutables(clazz)) {
+        String[] reflected = reflectedNames(executable);
+        if (reflected == null) {
+          if (!snapshotRead) {
+            snapshot = ClassSnapshot.of(clazz);
+            snapshotRead = true;
+          }
+          reflected = snapshotNames(snapshot, executable);
+        }
+        names.put(executable, reflected);
+      }
+    } catch (NoClassDefFoundError e) {
+      // the signatures of the class refer to a missing class, its members cannot be listed
+      names.clear();
+    }
+    this.namesByExecutable = Collections.unmodifiableMap(names);
+  }
+
+  /**
+   * parameter names of a method or constructor.
+   * @param executable the method or constructor
+   * @return the names of all parameters, empty if the class file does not record them
+   */
+  static String[] of(Executable executable) {
+    String[] names = PARAMETER_NAMES.get(executable.getDeclaringClass())
+        .namesByExecutable.get(executable);
+    return names == null ? NONE : names.clone();
+  }
+
+  private static Executable[] declaredExecutables(Class<?> clazz) {
+    Method[] methods = clazz.getDeclaredMethods();
+    Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+    Executable[] executables = new Executable[methods.length + constructors.length];
+    System.arraycopy(methods, 0, executables, 0, methods.length);
+    System.arraycopy(constructors, 0, executables, methods.length, constructors.length);
+    return executables;
+  }
+
+  private static String[] reflectedNames(Executable executable) {
+    Parameter[] parameters = executable.getParameters();
+    String[] names = new String[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      if (!parameters[i].isNamePresent()) {
+        return null;
+      }
+      names[i] = parameters[i].getName();
+    }
+    return names;
+  }
+
+  private static String[] snapshotNames(ClassSnapshot snapshot, Executable executable) {
+    if (snapshot == null) {
+      return NONE;
+    }
+    MethodDescriptor method = executable instanceof Constructor
+        ? snapshot.getMethod("<init>", Type.getConstructorDescriptor((Constructor<?>) executable))
+        : snapshot.getMethod(executable.getName(), Type.getMethodDescriptor((Method) executable));
+    List<String> names = method == null ? null : method.getParameterNames();
+    return names == null ? NONE : names.toArray(NONE);
+  }
+}
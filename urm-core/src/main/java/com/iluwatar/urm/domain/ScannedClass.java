@@ -0,0 +1,44 @@
+package com.iluwatar.urm.domain;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A domain class together with the edges found in its class file, as it leaves the scanning
+ * stage of {@link com.iluwatar.urm.DomainMapper#publishDomain()}.
+ *
+ * <p>The field edges are not merged yet: a reference between two classes in both directions
+ * shows up as one edge in each of them, the mapper merges them into one bidirectional edge once
+ * all classes are scanned.</p>
+ */
+public final class ScannedClass {
+
+  private final DomainClass domainClass;
+  private final List<Edge> fieldEdges;
+  private final List<Edge> hierarchyEdges;
+
+  /**
+   * create a scanned class.
+   * @param domainClass the class
+   * @param fieldEdges edges of the fields and inner classes of the class
+   * @param hierarchyEdges edges to the superclass and interfaces of the class
+   */
+  public ScannedClass(DomainClass domainClass, List<Edge> fieldEdges,
+                      List<Edge> hierarchyEdges) {
+    this.domainClass = domainClass;
+    this.fieldEdges = Collections.unmodifiableList(fieldEdges);
+    this.hierarchyEdges = Collections.unmodifiableList(hierarchyEdges);
+  }
+
+  public DomainClass getDomainClass() {
+    return domainClass;
+  }
+
+  public List<Edge> getFieldEdges() {
+    return fieldEdges;
+  }
+
+  public List<Edge> getHierarchyEdges() {
+    return hierarchyEdges;
+  }
+}
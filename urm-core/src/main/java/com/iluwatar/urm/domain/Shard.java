@@ -0,0 +1,43 @@
+package com.iluwatar.urm.domain;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Part of a domain model rendered as a diagram of its own, see {@link Sharding}.
+ *
+ * <p>The edges of a shard are the edges touching one of its classes. Classes of other shards
+ * at the far end of such an edge are its stubs, the presenters show them as bare nodes without
+ * members.</p>
+ */
+public final class Shard {
+
+  private final String name;
+  private final List<DomainClass> domainClasses;
+  private final List<Edge> edges;
+  private final List<DomainClass> stubs;
+
+  Shard(String name, List<DomainClass> domainClasses, List<Edge> edges,
+        List<DomainClass> stubs) {
+    this.name = name;
+    this.domainClasses = Collections.unmodifiableList(domainClasses);
+    this.edges = Collections.unmodifiableList(edges);
+    this.stubs = Collections.unmodifiableList(stubs);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<DomainClass> getDomainClasses() {
+    return domainClasses;
+  }
+
+  public List<Edge> getEdges() {
+    return edges;
+  }
+
+  public List<DomainClass> getStubs() {
+    return stubs;
+  }
+}
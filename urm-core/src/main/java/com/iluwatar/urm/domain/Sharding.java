@@ -0,0 +1,160 @@
+package com.iluwatar.urm.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits a domain model into shards small enough to be rendered on their own.
+ */
+public enum Sharding {
+
+  /**
+   * one shard per package, edges between packages appear in the shards of both ends.
+   */
+  PACKAGE,
+
+  /**
+   * one shard per connected component of the classes and their edges.
+   */
+  COMPONENT;
+
+  /**
+   * parse a sharding mode.
+   * @param sharding name of the mode, ignoring case
+   * @return the mode
+   * @throws IllegalArgumentException if there is no such mode
+   */
+  public static Sharding parse(String sharding) {
+    for (Sharding value : values()) {
+      if (value.name().equalsIgnoreCase(sharding.trim())) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Unknown sharding " + sharding
+        + ", expected package or component");
+  }
+
+  /**
+   * split a model into shards.
+   * @param domainClasses the domain classes
+   * @param edges the edges between them
+   * @return the shards ordered by name, the classes and edges of each shard in the order they
+   *     were given
+   */
+  public List<Shard> split(List<DomainClass> domainClasses, List<Edge> edges) {
+    Map<DomainClass, Integer> nodes = new HashMap<>();
+    List<DomainClass> classes = new ArrayList<>(domainClasses);
+    for (DomainClass domainClass : domainClasses) {
+      nodes.putIfAbsent(domainClass, nodes.size());
+    }
+    for (Edge edge : edges) {
+      for (DomainClass end : new DomainClass[] {edge.source, edge.target}) {
+        if (nodes.putIfAbsent(end, nodes.size()) == null) {
+          classes.add(end);
+        }
+      }
+    }
+    String[] keys = this == PACKAGE ? packageKeys(classes) : componentKeys(classes, edges, nodes);
+
+    Map<String, ShardBuilder> builders = new HashMap<>();
+    for (DomainClass domainClass : domainClasses) {
+      builders.computeIfAbsent(keys[nodes.get(domainClass)], ShardBuilder::new)
+          .domainClasses.add(domainClass);
+    }
+    for (Edge edge : edges) {
+      String sourceKey = keys[nodes.get(edge.source)];
+      String targetKey = keys[nodes.get(edge.target)];
+      ShardBuilder source = builders.get(sourceKey);
+      ShardBuilder target = builders.get(targetKey);
+      if (source != null) {
+        source.add(edge, sourceKey.equals(targetKey) || target == null ? null : edge.target);
+      }
+      if (target != null && target != source) {
+        target.add(edge, source == null ? null : edge.source);
+      }
+    }
+    List<Shard> shards = new ArrayList<>();
+    builders.values().stream()
+        .sorted(Comparator.comparing(builder -> builder.name))
+        .forEach(builder -> shards.add(new Shard(builder.name, builder.domainClasses,
+            builder.edges, new ArrayList<>(builder.stubs))));
+    return shards;
+  }
+
+  private static String[] packageKeys(List<DomainClass> classes) {
+    String[] keys = new String[classes.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = classes.get(i).getPackageName();
+    }
+    return keys;
+  }
+
+  // union-find over the edges, a component is named after its alphabetically first class
+  private static String[] componentKeys(List<DomainClass> classes, List<Edge> edges,
+                                        Map<DomainClass, Integer> nodes) {
+    int[] parents = new int[classes.size()];
+    int[] sizes = new int[classes.size()];
+    for (int i = 0; i < parents.length; i++) {
+      parents[i] = i;
+      sizes[i] = 1;
+    }
+    for (Edge edge : edges) {
+      int source = root(parents, nodes.get(edge.source));
+      int target = root(parents, nodes.get(edge.target));
+      if (source != target) {
+        if (sizes[source] < sizes[target]) {
+          int swap = source;
+          source = target;
+          target = swap;
+        }
+        parents[target] = source;
+        sizes[source] += sizes[target];
+      }
+    }
+    String[] names = new String[classes.size()];
+    for (int i = 0; i < names.length; i++) {
+      int root = root(parents, i);
+      String name = classes.get(i).getClazz().getName();
+      if (names[root] == null || name.compareTo(names[root]) < 0) {
+        names[root] = name;
+      }
+    }
+    String[] keys = new String[classes.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = names[root(parents, i)];
+    }
+    return keys;
+  }
+
+  private static int root(int[] parents, int node) {
+    while (parents[node] != node) {
+      // path halving keeps the trees flat
+      parents[node] = parents[parents[node]];
+      node = parents[node];
+    }
+    return node;
+  }
+
+  private static final class ShardBuilder {
+    private final String name;
+    private final List<DomainClass> domainClasses = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+    private final Set<DomainClass> stubs = new LinkedHashSet<>();
+
+    private ShardBuilder(String name) {
+      this.name = name;
+    }
+
+    private void add(Edge edge, DomainClass stub) {
+      edges.add(edge);
+      if (stub != null) {
+        stubs.add(stub);
+      }
+    }
+  }
+}
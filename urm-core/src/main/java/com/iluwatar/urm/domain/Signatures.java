@@ -0,0 +1,237 @@
+package com.iluwatar.urm.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+
+/**
+ * Renders the types of descriptors and {@code Signature} attributes the way
+ * {@link TypeUtils} renders reflected types, without loading any class they refer to.
+ *
+ * <p>Types are rendered as written in the source: type variables by their name and raw types
+ * without type parameters. The renderings of a run are cached by its {@link TypeNames}.</p>
+ */
+final class Signatures {
+
+  /**
+   * render a field type.
+   * @param signature generic signature or descriptor of the type
+   * @return the simple name of the type, e.g. {@code Map<String, List<Task>>}
+   */
+  static String type(String signature) {
+    StringBuilder sb = new StringBuilder();
+    new SignatureReader(signature).acceptType(new TypeRenderer(sb));
+    return sb.toString();
+  }
+
+  /**
+   * render the parameter and return types of a method.
+   * @param signature generic signature or descriptor of the method
+   * @return the rendered types
+   */
+  static MethodSignature method(String signature) {
+    MethodRenderer renderer = new MethodRenderer();
+    new SignatureReader(signature).accept(renderer);
+    return renderer.toSignature();
+  }
+
+  /**
+   * The rendered types of a method signature.
+   */
+  static final class MethodSignature {
+    final List<String> parameterTypes;
+    final String returnType;
+
+    private MethodSignature(List<String> parameterTypes, String returnType) {
+      this.parameterTypes = parameterTypes;
+      this.returnType = returnType;
+    }
+  }
+
+  private static final class MethodRenderer extends SignatureVisitor {
+    private final List<StringBuilder> parameters = new ArrayList<>();
+    private final StringBuilder returnType = new StringBuilder();
+
+    private MethodRenderer() {
+      super(Opcodes.ASM7);
+    }
+
+    @Override
+    public SignatureVisitor visitClassBound() {
+      return new TypeRenderer(new StringBuilder());
+    }
+
+    @Override
+    public SignatureVisitor visitInterfaceBound() {
+      return new TypeRenderer(new StringBuilder());
+    }
+
+    @Override
+    public SignatureVisitor visitParameterType() {
+      StringBuilder parameter = new StringBuilder();
+      parameters.add(parameter);
+      return new TypeRenderer(parameter);
+    }
+
+    @Override
+    public SignatureVisitor visitReturnType() {
+      return new TypeRenderer(returnType);
+    }
+
+    @Override
+    public SignatureVisitor visitExceptionType() {
+      return new TypeRenderer(new StringBuilder());
+    }
+
+    MethodSignature toSignature() {
+      List<String> parameterTypes = new ArrayList<>(parameters.size());
+      for (StringBuilder parameter : parameters) {
+        parameterTypes.add(parameter.toString());
+      }
+      return new MethodSignature(Collections.unmodifiableList(parameterTypes),
+          returnType.toString());
+    }
+  }
+
+  /**
+   * Renders one type, type arguments are rendered by renderers of their own. Array dimensions
+   * come first in a signature and are appended once the element type is complete.
+   */
+  private static final class TypeRenderer extends SignatureVisitor {
+    private final StringBuilder sb;
+    private int dimensions;
+    private String className;
+    private boolean hasArguments;
+
+    private TypeRenderer(StringBuilder sb) {
+      super(Opcodes.ASM7);
+      this.sb = sb;
+    }
+
+    @Override
+    public void visitBaseType(char descriptor) {
+      sb.append(baseTypeName(descriptor));
+      endType();
+    }
+
+    @Override
+    public void visitTypeVariable(String name) {
+      sb.append(name);
+      endType();
+    }
+
+    @Override
+    public SignatureVisitor visitArrayType() {
+      dimensions++;
+      return this;
+    }
+
+    @Override
+    public void visitClassType(String name) {
+      className = name;
+    }
+
+    @Override
+    public void visitInnerClassType(String name) {
+      // only reported after the type arguments of a generic outer class
+      closeArguments();
+      sb.append('.');
+      className = name;
+    }
+
+    @Override
+    public void visitTypeArgument() {
+      openArgument();
+      sb.append('?');
+    }
+
+    @Override
+    public SignatureVisitor visitTypeArgument(char wildcard) {
+      openArgument();
+      if (wildcard == EXTENDS) {
+        sb.append("? extends ");
+      } else if (wildcard == SUPER) {
+        sb.append("? super ");
+      }
+      return new TypeRenderer(sb);
+    }
+
+    @Override
+    public void visitEnd() {
+      closeArguments();
+      endType();
+    }
+
+    private void openArgument() {
+      if (hasArguments) {
+        sb.append(", ");
+      } else {
+        // like reflection, a nested class is qualified by its outer class only if generic
+        sb.append(qualifiedName(className)).append('<');
+        className = null;
+        hasArguments = true;
+      }
+    }
+
+    private void closeArguments() {
+      if (hasArguments) {
+        sb.append('>');
+        hasArguments = false;
+      } else if (className != null) {
+        sb.append(simpleName(className));
+      }
+      className = null;
+    }
+
+    private void endType() {
+      for (int i = 0; i < dimensions; i++) {
+        sb.append("[]");
+      }
+      dimensions = 0;
+    }
+  }
+
+  private static String simpleName(String internalName) {
+    int start = Math.max(internalName.lastIndexOf('/'), internalName.lastIndexOf('$')) + 1;
+    return internalName.substring(start);
+  }
+
+  private static String qualifiedName(String internalName) {
+    int outerEnd = internalName.lastIndexOf('$');
+    if (outerEnd <= internalName.lastIndexOf('/')) {
+      return simpleName(internalName);
+    }
+    return simpleName(internalName.substring(0, outerEnd)) + '.'
+        + internalName.substring(outerEnd + 1);
+  }
+
+  private static String baseTypeName(char descriptor) {
+    switch (descriptor) {
+      case 'Z':
+        return "boolean";
+      case 'B':
+        return "byte";
+      case 'C':
+        return "char";
+      case 'S':
+        return "short";
+      case 'I':
+        return "int";
+      case 'J':
+        return "long";
+      case 'F':
+        return "float";
+      case 'D':
+        return "double";
+      default:
+        return "void";
+    }
+  }
+
+  private Signatures() {
+    // private constructor for utility class
+  }
+}
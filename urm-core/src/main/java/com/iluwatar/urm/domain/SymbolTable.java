@@ -0,0 +1,115 @@
+package com.iluwatar.urm.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the classes and packages of a {@link DomainGraph} to dense int ids.
+ *
+ * <p>The domain classes get the ids {@code 0} to {@code getDomainClassCount() - 1} in the order
+ * they were given, classes that are only reached through an edge, e.g. the outer class of a
+ * domain inner class, follow them.</p>
+ */
+public final class SymbolTable {
+
+  private final List<DomainClass> classes = new ArrayList<>();
+  private final Map<DomainClass, Integer> idsByClass = new HashMap<>();
+  private final Map<String, Integer> idsByName = new HashMap<>();
+  private final List<String> packageNames = new ArrayList<>();
+  private final Map<String, Integer> idsByPackage = new HashMap<>();
+  private int[] classPackages = new int[16];
+  private int domainClassCount;
+
+  SymbolTable() {
+  }
+
+  int addDomainClass(DomainClass domainClass) {
+    int id = add(domainClass);
+    domainClassCount = classes.size();
+    return id;
+  }
+
+  int add(DomainClass domainClass) {
+    Integer id = idsByClass.get(domainClass);
+    if (id != null) {
+      return id;
+    }
+    id = classes.size();
+    classes.add(domainClass);
+    idsByClass.put(domainClass, id);
+    idsByName.putIfAbsent(domainClass.getClazz().getName(), id);
+    String packageName = domainClass.getPackageName();
+    Integer packageId = idsByPackage.get(packageName);
+    if (packageId == null) {
+      packageId = packageNames.size();
+      packageNames.add(packageName);
+      idsByPackage.put(packageName, packageId);
+    }
+    if (id == classPackages.length) {
+      classPackages = Arrays.copyOf(classPackages, id * 2);
+    }
+    classPackages[id] = packageId;
+    return id;
+  }
+
+  public int getClassCount() {
+    return classes.size();
+  }
+
+  public int getDomainClassCount() {
+    return domainClassCount;
+  }
+
+  public DomainClass getDomainClass(int classId) {
+    return classes.get(classId);
+  }
+
+  public String getClassName(int classId) {
+    return classes.get(classId).getClazz().getName();
+  }
+
+  /**
+   * look up a class by its binary name.
+   * @param name binary name of the class
+   * @return the id of the class or -1 if it is not in the table
+   */
+  public int getClassId(String name) {
+    Integer id = idsByName.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * look up a class.
+   * @param domainClass the class
+   * @return the id of the class or -1 if it is not in the table
+   */
+  public int getClassId(DomainClass domainClass) {
+    Integer id = idsByClass.get(domainClass);
+    return id == null ? -1 : id;
+  }
+
+  public int getPackageCount() {
+    return packageNames.size();
+  }
+
+  public int getPackageId(int classId) {
+    return classPackages[classId];
+  }
+
+  public String getPackageName(int packageId) {
+    return packageNames.get(packageId);
+  }
+
+  /**
+   * look up a package by its name.
+   * @param packageName name of the package
+   * @return the id of the package or -1 if no class of the table is in it
+   */
+  public int getPackageIdByName(String packageName) {
+    Integer id = idsByPackage.get(packageName);
+    return id == null ? -1 : id;
+  }
+}
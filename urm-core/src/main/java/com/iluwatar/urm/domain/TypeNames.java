@@ -0,0 +1,123 @@
+package com.iluwatar.urm.domain;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The simple names of the member types rendered during one run, owned by its
+ * {@link DomainClassRegistry}.
+ *
+ * <p>The same types show up in the members of many classes, so their names are rendered once
+ * and kept while the run lasts, those of reflected types as well as those of class file
+ * signatures rendered by {@link Signatures}. Each cache holds the least recently used names
+ * only and is dropped with the registry, so it pins no class loader of a scanned project
+ * beyond the run. Classes themselves are named through {@link TypeUtils#getSimpleName(Type)},
+ * which caches their names along with the class.</p>
+ */
+final class TypeNames {
+
+  /**
+   * renders every name, for domain classes created outside a registry.
+   */
+  static final TypeNames UNCACHED = new TypeNames(0);
+
+  private static final int DEFAULT_CAPACITY = 16 * 1024;
+
+  private final Cache<Type, String> types;
+  private final Cache<String, String> signatures;
+  private final Cache<String, Signatures.MethodSignature> methods;
+
+  TypeNames() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * create the caches.
+   * @param capacity maximum number of names in each cache, the least recently used are evicted
+   */
+  TypeNames(int capacity) {
+    this.types = new Cache<>(capacity, TypeUtils::getSimpleName);
+    this.signatures = new Cache<>(capacity, Signatures::type);
+    this.methods = new Cache<>(capacity, Signatures::method);
+  }
+
+  /**
+   * the simple name of a type, see {@link TypeUtils#getSimpleName(Type)}.
+   * @param type the type
+   * @return the name
+   */
+  String getSimpleName(Type type) {
+    return type instanceof Class ? TypeUtils.getSimpleName(type) : types.get(type);
+  }
+
+  /**
+   * the simple name of a field type in a class file, see {@link Signatures#type(String)}.
+   * @param signature generic signature or descriptor of the type
+   * @return the name
+   */
+  String type(String signature) {
+    return signatures.get(signature);
+  }
+
+  /**
+   * the types of a method in a class file, see {@link Signatures#method(String)}.
+   * @param signature generic signature or descriptor of the method
+   * @return the rendered types
+   */
+  Signatures.MethodSignature method(String signature) {
+    return methods.get(signature);
+  }
+
+  int size() {
+    return types.size() + signatures.size() + methods.size();
+  }
+
+  /**
+   * A map of the least recently used renderings, safe to use from several threads.
+   */
+  private static final class Cache<K, V> {
+    private final int capacity;
+    private final Function<K, V> renderer;
+    private final Map<K, V> values;
+
+    private Cache(int capacity, Function<K, V> renderer) {
+      this.capacity = capacity;
+      this.renderer = renderer;
+      this.values = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+          return size() > Cache.this.capacity;
+        }
+      };
+    }
+
+    V get(K key) {
+      if (capacity == 0) {
+        return renderer.apply(key);
+      }
+      V value;
+      synchronized (values) {
+        value = values.get(key);
+      }
+      if (value == null) {
+        // rendered outside the lock, another thread may render the same value meanwhile
+        value = renderer.apply(key);
+        synchronized (values) {
+          V rendered = values.putIfAbsent(key, value);
+          if (rendered != null) {
+            value = rendered;
+          }
+        }
+      }
+      return value;
+    }
+
+    int size() {
+      synchronized (values) {
+        return values.size();
+      }
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.iluwatar.urm.domain;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -12,7 +13,13 @@ import java.util.stream.Collectors;
  */
 class TypeUtils {
 
-  private static final String JAVA_IDENTIFIER_REGEX = "([a-zA-Z_$][a-zA-Z\\d_$]*)";
+  // the names of classes live as long as the classes, other types are cached by TypeNames
+  private static final ClassValue<String> CLASS_NAMES = new ClassValue<>() {
+    @Override
+    protected String computeValue(Class<?> type) {
+      return getSimpleTypeName(type);
+    }
+  };
 
   static Visibility getVisibility(int mod) {
     if (Modifier.isPublic(mod)) {
@@ -26,11 +33,40 @@ class TypeUtils {
     }
   }
 
+  /**
+   * whether the constructors of a class take an instance of its enclosing class as their first
+   * parameter, which is no declared parameter. This is the case for inner member classes and
+   * for local classes declared in a non-static context.
+   * @param clazz the class
+   * @param firstParameterType binary name of the first parameter type of a constructor or
+   *     null if it has no parameters
+   * @return whether the first parameter is the outer instance
+   */
+  static boolean takesOuterInstance(Class<?> clazz, String firstParameterType) {
+    if (Modifier.isStatic(clazz.getModifiers())) {
+      return false;
+    } else if (clazz.isMemberClass()) {
+      return true;
+    } else if (!clazz.isLocalClass() || firstParameterType == null
+        || !firstParameterType.equals(clazz.getEnclosingClass().getName())) {
+      return false;
+    }
+    try {
+      // local classes in initializers have no enclosing method, those in static ones would
+      // need a constructor taking an instance of the enclosing class
+      Method method = clazz.getEnclosingMethod();
+      return method == null || !Modifier.isStatic(method.getModifiers());
+    } catch (LinkageError | TypeNotPresentException e) {
+      // the enclosing method refers to a missing class, the first parameter decides
+      return true;
+    }
+  }
+
   static String getSimpleName(Type type) {
-    if (type instanceof ParameterizedType) {
+    if (type instanceof Class) {
+      return CLASS_NAMES.get((Class<?>) type);
+    } else if (type instanceof ParameterizedType) {
       return getSimpleTypeName(((ParameterizedType) type));
-    } else if (type instanceof Class) {
-      return getSimpleTypeName(((Class) type));
     } else if (type instanceof TypeVariable) {
       return getSimpleTypeName(((TypeVariable) type));
     } else {
@@ -119,8 +155,49 @@ class TypeUtils {
     return getSimpleName(t);
   }
 
+  /**
+   * strip the qualifiers of all names in a type name, {@code java.util.List<java.lang.String>}
+   * becomes {@code List<String>}.
+   * @param parameter the type name
+   * @return the name without packages and outer classes
+   */
   static String cutPackages(String parameter) {
-    return parameter.replaceAll(JAVA_IDENTIFIER_REGEX + "\\.", "");
+    if (parameter.indexOf('.') < 0) {
+      return parameter;
+    }
+    int length = parameter.length();
+    StringBuilder sb = new StringBuilder(length);
+    int i = 0;
+    while (i < length) {
+      if (!isIdentifierPart(parameter.charAt(i))) {
+        sb.append(parameter.charAt(i++));
+        continue;
+      }
+      int start = i;
+      while (i < length && isIdentifierPart(parameter.charAt(i))) {
+        i++;
+      }
+      // an identifier cannot start with a digit, leading digits are no part of a qualifier
+      int identifierStart = start;
+      while (identifierStart < i && isDigit(parameter.charAt(identifierStart))) {
+        identifierStart++;
+      }
+      if (identifierStart < i && i < length && parameter.charAt(i) == '.') {
+        sb.append(parameter, start, identifierStart);
+        i++;
+      } else {
+        sb.append(parameter, start, i);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_' || c == '$';
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
   }
 
 }
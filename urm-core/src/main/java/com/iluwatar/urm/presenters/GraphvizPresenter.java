@@ -1,14 +1,16 @@
 package com.iluwatar.urm.presenters;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
+import com.iluwatar.urm.concurrent.WorkerPool;
 import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.DomainMethod;
 import com.iluwatar.urm.domain.Edge;
 import com.iluwatar.urm.domain.EdgeType;
+import com.iluwatar.urm.domain.LevelOfDetail;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 
 public class GraphvizPresenter implements Presenter {
@@ -16,7 +18,19 @@ public class GraphvizPresenter implements Presenter {
   public static final String DOMAIN_DECLARATION = "digraph domain {\n";
   public static final String DEFAULTS = "  edge [ fontsize = 11 ];\n  node [ shape=record ];";
   private static final String INHERITANCE_STYLE = "arrowhead=empty color=slategray";
-  private final AtomicInteger count = new AtomicInteger();
+  private final int threads;
+
+  public GraphvizPresenter() {
+    this(WorkerPool.DEFAULT_THREADS);
+  }
+
+  /**
+   * create a presenter rendering on worker threads.
+   * @param threads maximum number of threads rendering packages and edges concurrently
+   */
+  public GraphvizPresenter(int threads) {
+    this.threads = threads;
+  }
 
   private Object getEdgeDescription(Edge edge) {
     StringBuilder sb = new StringBuilder();
@@ -25,22 +39,15 @@ public class GraphvizPresenter implements Presenter {
   }
 
   private String linkDirection(Edge edge) {
-    if (edge.source.getDescription() == null) {
+    if (edge.sourceDescription == null) {
       return "dir=forward arrowhead=odiamond color=slategray";
     }
-    if (edge.target.getDescription() == null) {
+    if (edge.targetDescription == null) {
       return "dir=back arrowtail=odiamond color=slategray";
     }
     return "dir=both arrowhead=none arrowtail=none color=slategray";
   }
 
-  private String describeInheritance(List<Edge> edges) {
-    return edges.stream()
-        .filter(e -> e.type == EdgeType.EXTENDS)
-        .map(this::describeInheritance)
-        .collect(joining());
-  }
-
   private String describeInheritance(Edge hierarchyEdge) {
     return String.format("  %s -> %s [%s];\n",
         hierarchyEdge.source.getClassName(),
@@ -48,46 +55,66 @@ public class GraphvizPresenter implements Presenter {
         INHERITANCE_STYLE);
   }
 
-  private String describePackages(List<DomainClass> domainObjects) {
-    count.set(0);
-    return domainObjects.stream()
-        .collect(groupingBy(DomainClass::getPackageName))
-        .entrySet().stream()
-        .map(this::describePackage)
-        .collect(joining());
+  private void writePackages(LevelOfDetail detail, Appendable out) throws IOException {
+    List<List<DomainClass>> packages = Rendering.groupByPackage(detail.getDomainClasses());
+    // clusters are numbered by the position of their package, whichever thread renders them
+    List<Integer> clusters = IntStream.range(0, packages.size()).boxed().collect(toList());
+    Rendering.writeBlocks(clusters,
+        cluster -> describePackage(cluster, packages.get(cluster), detail), threads, out);
   }
 
-  private String describePackage(Map.Entry<String, List<DomainClass>> entry) {
+  private String describePackage(int cluster, List<DomainClass> packageClasses,
+                                 LevelOfDetail detail) {
     return String.format("  subgraph cluster_%s {\n    label = \"%s\";\n%s  }\n",
-        count.getAndIncrement(),
-        entry.getKey(),
-        listDomainObjects(entry.getValue()));
+        cluster, packageClasses.get(0).getPackageName(),
+        Rendering.describeDistinct(packageClasses, detail.isSkeleton()
+            ? this::describeSkeleton
+            : domainObject -> describeDomainObject(domainObject, detail.getMaxMembers())));
   }
 
-  private String listDomainObjects(List<DomainClass> domainObjects) {
-    return domainObjects.stream()
-        .map(domainObject -> describeDomainObject(domainObject))
-        .distinct()
-        .collect(joining());
+  private String describeSkeleton(DomainClass domainObject) {
+    return String.format("    %s [ label = \"{%s}\" ] \n",
+        domainObject.getClassName(), describeKind(domainObject));
   }
 
-  private String describeDomainObject(DomainClass domainObject) {
+  private String describeKind(DomainClass domainObject) {
+    switch (domainObject.getClassType()) {
+      case INTERFACE:
+        return "\\<\\<interface\\>\\>\\n" + domainObject.getClassName();
+      case ENUM:
+        return "\\<\\<enum\\>\\>\\n" + domainObject.getClassName();
+      case ANNOTATION:
+        return "\\<\\<annotation\\>\\>\\n" + domainObject.getClassName();
+      default:
+        return domainObject.getClassName();
+    }
+  }
+
+  private String describeDomainObject(DomainClass domainObject, int maxMembers) {
     return String.format("    %s [ label = \"{%s | %s}\" ] \n",
         domainObject.getClassName(), domainObject.getClassName(),
-        describeDomainObjectMethods(domainObject));
+        describeDomainObjectMethods(domainObject, maxMembers));
   }
 
-  private String describeDomainObjectMethods(DomainClass domainObject) {
+  // only methods are listed, so the budget applies to them alone
+  private String describeDomainObjectMethods(DomainClass domainObject, int maxMembers) {
     StringBuilder sb = new StringBuilder();
-    domainObject.getMethods().stream().forEach((m) -> sb.append("+ " + m + "\\l"));
+    List<DomainMethod> methods = domainObject.getMethods();
+    methods.stream().limit(maxMembers).forEach((m) -> sb.append("+ " + m + "\\l"));
+    if (methods.size() > maxMembers) {
+      sb.append("... ").append(methods.size() - maxMembers).append(" more\\l");
+    }
     return sb.toString();
   }
 
-  private String describeCompositions(List<Edge> edges) {
-    return edges.stream()
-        .filter(e -> e.type != EdgeType.EXTENDS)
-        .map(this::describeComposition)
-        .collect(joining());
+  private String describeSummary(LevelOfDetail.PackageSummary summary) {
+    return String.format("  \"%s\" [ label = \"{%s | %d classes}\" ];\n",
+        summary.getName(), summary.getName(), summary.getClassCount());
+  }
+
+  private String describePackageEdge(LevelOfDetail.PackageEdge edge) {
+    return String.format("  \"%s\" -> \"%s\" [ label = \"%d\" weight = %d color=slategray ];\n",
+        edge.getSource(), edge.getTarget(), edge.getWeight(), edge.getWeight());
   }
 
   private String describeComposition(Edge compositionEdge) {
@@ -101,12 +128,29 @@ public class GraphvizPresenter implements Presenter {
 
   @Override
   public Representation describe(List<DomainClass> domainObjects, List<Edge> edges) {
-    String content = DOMAIN_DECLARATION + DEFAULTS + "\n"
-        + describePackages(domainObjects)
-        + describeCompositions(edges)
-        + describeInheritance(edges)
-        + "}";
-    return new Representation(content, "dot");
+    return Representation.render(this, domainObjects, edges);
+  }
+
+  @Override
+  public void write(List<DomainClass> domainObjects, List<Edge> edges, Appendable out)
+      throws IOException {
+    write(LevelOfDetail.full(domainObjects, edges), out);
+  }
+
+  @Override
+  public void write(LevelOfDetail detail, Appendable out) throws IOException {
+    out.append(DOMAIN_DECLARATION).append(DEFAULTS).append('\n');
+    if (detail.isCollapsed()) {
+      Rendering.writeBlocks(detail.getPackages(), this::describeSummary, threads, out);
+      Rendering.writeBlocks(detail.getPackageEdges(), this::describePackageEdge, threads, out);
+    } else {
+      writePackages(detail, out);
+      Rendering.writeEdges(detail.getEdges(), edge -> edge.type != EdgeType.EXTENDS,
+          this::describeComposition, threads, out);
+      Rendering.writeEdges(detail.getEdges(), edge -> edge.type == EdgeType.EXTENDS,
+          this::describeInheritance, threads, out);
+    }
+    out.append('}');
   }
 
   @Override
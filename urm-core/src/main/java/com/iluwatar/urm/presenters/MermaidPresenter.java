@@ -1,14 +1,17 @@
 package com.iluwatar.urm.presenters;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.joining;
-
+import com.iluwatar.urm.concurrent.WorkerPool;
 import com.iluwatar.urm.domain.DomainClass;
 import com.iluwatar.urm.domain.DomainClassType;
+import com.iluwatar.urm.domain.DomainConstructor;
+import com.iluwatar.urm.domain.DomainField;
+import com.iluwatar.urm.domain.DomainMembers;
+import com.iluwatar.urm.domain.DomainMethod;
 import com.iluwatar.urm.domain.Edge;
 import com.iluwatar.urm.domain.EdgeType;
+import com.iluwatar.urm.domain.LevelOfDetail;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 
@@ -16,32 +19,57 @@ import java.util.stream.Collectors;
 public class MermaidPresenter implements Presenter {
   public static final String FILE_PREAMBLE = "classDiagram";
 
-  private String describePackages(List<DomainClass> domainClasss) {
-    return domainClasss.stream()
-        .collect(groupingBy(DomainClass::getPackageName))
-        .entrySet().stream()
-        .map(this::describePackage)
-        .collect(joining());
+  private final int threads;
+
+  public MermaidPresenter() {
+    this(WorkerPool.DEFAULT_THREADS);
   }
 
-  private String describePackage(Map.Entry<String, List<DomainClass>> entry) {
-    return listDomainClasses(entry.getValue());
+  /**
+   * create a presenter rendering on worker threads.
+   * @param threads maximum number of threads rendering packages and edges concurrently
+   */
+  public MermaidPresenter(int threads) {
+    this.threads = threads;
   }
 
-  private String listDomainClasses(List<DomainClass> domainClasses) {
-    return domainClasses.stream()
-        .map(this::describeDomainClass)
-        .distinct()
-        .collect(joining());
+  private String describePackage(List<DomainClass> packageClasses, LevelOfDetail detail) {
+    return Rendering.describeDistinct(packageClasses, detail.isSkeleton()
+        ? this::describeSkeleton
+        : domainClass -> describeDomainClass(domainClass, detail.getMaxMembers()));
   }
 
-  private String describeDomainClass(DomainClass domainClass) {
-    return String.format("  %s {\n%s%s%s%s\n  }\n",
+  private String describeSkeleton(DomainClass domainClass) {
+    String annotation = describeDomainClassTypeAnnotation(domainClass);
+    return annotation.isEmpty()
+        ? String.format("  %s\n", describeDomainClassType(domainClass))
+        : String.format("  %s {\n%s\n  }\n", describeDomainClassType(domainClass), annotation);
+  }
+
+  private String describeDomainClass(DomainClass domainClass, int maxMembers) {
+    DomainMembers members = domainClass.getMembers(maxMembers);
+    return String.format("  %s {\n%s%s%s%s%s\n  }\n",
         describeDomainClassType(domainClass),
         describeDomainClassTypeAnnotation(domainClass),
-        describeDomainClassFields(domainClass),
-        describeDomainClassConstructors(domainClass),
-        describeDomainClassMethods(domainClass));
+        describeDomainClassFields(members.getFields()),
+        describeDomainClassConstructors(members.getConstructors()),
+        describeDomainClassMethods(members.getMethods()),
+        members.getElided() > 0 ? "\n    ... " + members.getElided() + " more" : "");
+  }
+
+  private String describeSummary(LevelOfDetail.PackageSummary summary) {
+    return String.format("  class %s[\"%s\"] {\n<<package>>\n    %d classes\n  }\n",
+        id(summary.getName()), summary.getName(), summary.getClassCount());
+  }
+
+  private String describePackageEdge(LevelOfDetail.PackageEdge edge) {
+    return String.format("%s --> %s : %d\n",
+        id(edge.getSource()), id(edge.getTarget()), edge.getWeight());
+  }
+
+  // Mermaid ids cannot contain dots, the package name is shown as label
+  private static String id(String packageName) {
+    return "pkg_" + packageName.replace('.', '_');
   }
 
   private String describeDomainClassType(DomainClass domainClass) {
@@ -64,8 +92,8 @@ public class MermaidPresenter implements Presenter {
     }
   }
 
-  private String describeDomainClassFields(DomainClass domainClass) {
-    String description = domainClass.getFields().stream()
+  private String describeDomainClassFields(List<DomainField> fields) {
+    String description = fields.stream()
         .map(f -> f.getVisibility() + " "
             + f.getUmlName()
            + (f.isStatic() ? "$  " : "")
@@ -74,15 +102,15 @@ public class MermaidPresenter implements Presenter {
     return !description.equals("") ? "\n    " + description : "";
   }
 
-  private String describeDomainClassConstructors(DomainClass domainClass) {
-    String description = domainClass.getConstructors().stream()
+  private String describeDomainClassConstructors(List<DomainConstructor> constructors) {
+    String description = constructors.stream()
         .map(c -> c.getVisibility() + " " + c.getUmlName())
         .collect(Collectors.joining("\n    "));
     return !description.equals("") ? "\n    " + description : "";
   }
 
-  private String describeDomainClassMethods(DomainClass domainClass) {
-    String description = domainClass.getMethods().stream()
+  private String describeDomainClassMethods(List<DomainMethod> methods) {
+    String description = methods.stream()
         .map(m -> m.getVisibility() + " "
             + m.getUmlName()
             + (m.isStatic() ? "$ " : "")
@@ -93,18 +121,30 @@ public class MermaidPresenter implements Presenter {
 
   @Override
   public Representation describe(List<DomainClass> domainObjects, List<Edge> edges) {
-    String content = FILE_PREAMBLE + "\n"
-        + describePackages(domainObjects)
-        + describeCompositions(edges)
-        + describeInheritance(edges);
-    return new Representation(content, "mmd");
+    return Representation.render(this, domainObjects, edges);
   }
 
-  private String describeCompositions(List<Edge> edges) {
-    return edges.stream()
-        .filter(e -> e.type != EdgeType.EXTENDS)
-        .map(this::describeComposition)
-        .collect(joining());
+  @Override
+  public void write(List<DomainClass> domainObjects, List<Edge> edges, Appendable out)
+      throws IOException {
+    write(LevelOfDetail.full(domainObjects, edges), out);
+  }
+
+  @Override
+  public void write(LevelOfDetail detail, Appendable out) throws IOException {
+    out.append(FILE_PREAMBLE).append('\n');
+    if (detail.isCollapsed()) {
+      Rendering.writeBlocks(detail.getPackages(), this::describeSummary, threads, out);
+      Rendering.writeBlocks(detail.getPackageEdges(), this::describePackageEdge, threads, out);
+    } else {
+      Rendering.writeBlocks(Rendering.groupByPackage(detail.getDomainClasses()),
+          packageClasses -> describePackage(packageClasses, detail),
+          threads, out);
+      Rendering.writeEdges(detail.getEdges(), edge -> edge.type != EdgeType.EXTENDS,
+          this::describeComposition, threads, out);
+      Rendering.writeEdges(detail.getEdges(), edge -> edge.type == EdgeType.EXTENDS,
+          this::describeInheritance, threads, out);
+    }
   }
 
   private String describeComposition(Edge compositionEdge) {
@@ -130,23 +170,16 @@ public class MermaidPresenter implements Presenter {
         break;
     }
 
-    if (edge.source.getDescription() == null) {
+    if (edge.sourceDescription == null) {
       arrow = flip(arrow);
     } else {
-      targetName = " \"-" + edge.source.getDescription() + "\" " + targetName;
+      targetName = " \"-" + edge.sourceDescription + "\" " + targetName;
     }
 
     return String.format("%s %s %s", sourceName, arrow, targetName)
         + (arrowDescription != null ? " : " + arrowDescription : "");
   }
 
-  private String describeInheritance(List<Edge> edges) {
-    return edges.stream()
-        .filter(e -> e.type == EdgeType.EXTENDS)
-        .map(this::describeInheritance)
-        .collect(joining());
-  }
-
   private String describeInheritance(Edge hierarchyEdge) {
     String arrow = "--|>";
     if (hierarchyEdge.target.getClassType() == DomainClassType.INTERFACE
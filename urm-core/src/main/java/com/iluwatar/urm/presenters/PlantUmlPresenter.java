@@ -1,15 +1,18 @@
 package com.iluwatar.urm.presenters;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.joining;
-
+import com.iluwatar.urm.concurrent.WorkerPool;
 import com.iluwatar.urm.domain.DomainClass;
 import com.iluwatar.urm.domain.DomainClassType;
+import com.iluwatar.urm.domain.DomainConstructor;
+import com.iluwatar.urm.domain.DomainField;
+import com.iluwatar.urm.domain.DomainMembers;
+import com.iluwatar.urm.domain.DomainMethod;
 import com.iluwatar.urm.domain.Edge;
 import com.iluwatar.urm.domain.EdgeType;
+import com.iluwatar.urm.domain.LevelOfDetail;
 import com.iluwatar.urm.domain.Visibility;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 
@@ -23,13 +26,19 @@ public class PlantUmlPresenter implements Presenter {
 
   public static final String FILE_PREAMBLE = "@startuml";
   public static final String FILE_POSTAMBLE = "@enduml";
-  private transient List<DomainClass> domainClasses;
 
-  private String describeInheritance(List<Edge> edges) {
-    return edges.stream()
-        .filter(e -> e.type == EdgeType.EXTENDS)
-        .map(this::describeInheritance)
-        .collect(joining());
+  private final int threads;
+
+  public PlantUmlPresenter() {
+    this(WorkerPool.DEFAULT_THREADS);
+  }
+
+  /**
+   * create a presenter rendering on worker threads.
+   * @param threads maximum number of threads rendering packages and edges concurrently
+   */
+  public PlantUmlPresenter(int threads) {
+    this.threads = threads;
   }
 
   private String describeInheritance(Edge hierarchyEdge) {
@@ -47,33 +56,41 @@ public class PlantUmlPresenter implements Presenter {
         hierarchyEdge.target.getClassName());
   }
 
-  private String describePackages(List<DomainClass> domainClasss) {
-    return domainClasss.stream()
-        .collect(groupingBy(DomainClass::getPackageName))
-        .entrySet().stream()
-        .map(this::describePackage)
-        .collect(joining());
+  private String describePackage(List<DomainClass> packageClasses, LevelOfDetail detail) {
+    return "package " + packageClasses.get(0).getPackageName() + " {\n"
+        + Rendering.describeDistinct(packageClasses, detail.isSkeleton()
+            ? this::describeSkeleton
+            : domainClass -> describeDomainClass(domainClass, detail.getMaxMembers()))
+        + "}\n";
+  }
+
+  private String describeSkeleton(DomainClass domainClass) {
+    return String.format("  %s\n", describeDomainClassType(domainClass));
   }
 
-  private String describePackage(Map.Entry<String, List<DomainClass>> entry) {
-    return String.format("package %s {\n%s}\n",
-        entry.getKey(),
-        listDomainClasses(entry.getValue()));
+  private String describeDomainClass(DomainClass domainClass, int maxMembers) {
+    DomainMembers members = domainClass.getMembers(maxMembers);
+    return String.format("  %s {%s%s%s%s\n  }\n",
+        describeDomainClassType(domainClass),
+        describeDomainClassFields(members.getFields()),
+        describeDomainClassConstructors(members.getConstructors()),
+        describeDomainClassMethods(members.getMethods()),
+        members.getElided() > 0 ? "\n    .. " + members.getElided() + " more .." : "");
   }
 
-  private String listDomainClasses(List<DomainClass> domainClasses) {
-    return domainClasses.stream()
-        .map(this::describeDomainClass)
-        .distinct()
-        .collect(joining());
+  private String describeSummary(LevelOfDetail.PackageSummary summary) {
+    return String.format("package \"%s\" as %s <<%d classes>> {\n}\n",
+        summary.getName(), alias(summary.getName()), summary.getClassCount());
   }
 
-  private String describeDomainClass(DomainClass domainClass) {
-    return String.format("  %s {%s%s%s\n  }\n",
-        describeDomainClassType(domainClass),
-        describeDomainClassFields(domainClass),
-        describeDomainClassConstructors(domainClass),
-        describeDomainClassMethods(domainClass));
+  private String describePackageEdge(LevelOfDetail.PackageEdge edge) {
+    return String.format("%s --> %s : %d\n",
+        alias(edge.getSource()), alias(edge.getTarget()), edge.getWeight());
+  }
+
+  // an alias keeps PlantUML from nesting packages by the dots of their names
+  private static String alias(String packageName) {
+    return "pkg_" + packageName.replace('.', '_');
   }
 
   private String describeDomainClassType(DomainClass domainClass) {
@@ -98,36 +115,29 @@ public class PlantUmlPresenter implements Presenter {
     return className;
   }
 
-  private String describeDomainClassFields(DomainClass domainClass) {
-    String description = domainClass.getFields().stream()
+  private String describeDomainClassFields(List<DomainField> fields) {
+    String description = fields.stream()
         .map(f -> f.getVisibility() + " " + f.getUmlName()
             + (f.isStatic() ? " {static}" : "") + (f.isAbstract() ? " {abstract}" : ""))
         .collect(Collectors.joining("\n    "));
     return !description.equals("") ? "\n    " + description : "";
   }
 
-  private String describeDomainClassConstructors(DomainClass domainClass) {
-    String description = domainClass.getConstructors().stream()
+  private String describeDomainClassConstructors(List<DomainConstructor> constructors) {
+    String description = constructors.stream()
         .map(c -> c.getVisibility() + " " + c.getUmlName())
         .collect(Collectors.joining("\n    "));
     return !description.equals("") ? "\n    " + description : "";
   }
 
-  private String describeDomainClassMethods(DomainClass domainClass) {
-    String description = domainClass.getMethods().stream()
+  private String describeDomainClassMethods(List<DomainMethod> methods) {
+    String description = methods.stream()
         .map(m -> m.getVisibility() + " " + m.getUmlName()
             + (m.isStatic() ? " {static}" : "") + (m.isAbstract() ? " {abstract}" : ""))
         .collect(Collectors.joining("\n    "));
     return !description.equals("") ? "\n    " + description : "";
   }
 
-  private String describeCompositions(List<Edge> edges) {
-    return edges.stream()
-        .filter(e -> e.type != EdgeType.EXTENDS)
-        .map(this::describeComposition)
-        .collect(joining());
-  }
-
   private String describeComposition(Edge compositionEdge) {
     return String.format("%s\n", describeEdge(compositionEdge));
   }
@@ -151,10 +161,10 @@ public class PlantUmlPresenter implements Presenter {
         break;
     }
 
-    if (edge.source.getDescription() == null) {
+    if (edge.sourceDescription == null) {
       arrow = flip(arrow);
     } else {
-      targetName = " \"-" + edge.source.getDescription() + "\" " + targetName;
+      targetName = " \"-" + edge.sourceDescription + "\" " + targetName;
     }
 
     return String.format("%s %s %s", sourceName, arrow, targetName)
@@ -163,13 +173,31 @@ public class PlantUmlPresenter implements Presenter {
 
   @Override
   public Representation describe(List<DomainClass> domainClasses, List<Edge> edges) {
-    this.domainClasses = domainClasses;
-    String content = FILE_PREAMBLE + "\n"
-        + describePackages(domainClasses)
-        + describeCompositions(edges)
-        + describeInheritance(edges)
-        + FILE_POSTAMBLE;
-    return new Representation(content, "puml");
+    return Representation.render(this, domainClasses, edges);
+  }
+
+  @Override
+  public void write(List<DomainClass> domainClasses, List<Edge> edges, Appendable out)
+      throws IOException {
+    write(LevelOfDetail.full(domainClasses, edges), out);
+  }
+
+  @Override
+  public void write(LevelOfDetail detail, Appendable out) throws IOException {
+    out.append(FILE_PREAMBLE).append('\n');
+    if (detail.isCollapsed()) {
+      Rendering.writeBlocks(detail.getPackages(), this::describeSummary, threads, out);
+      Rendering.writeBlocks(detail.getPackageEdges(), this::describePackageEdge, threads, out);
+    } else {
+      Rendering.writeBlocks(Rendering.groupByPackage(detail.getDomainClasses()),
+          packageClasses -> describePackage(packageClasses, detail),
+          threads, out);
+      Rendering.writeEdges(detail.getEdges(), edge -> edge.type != EdgeType.EXTENDS,
+          this::describeComposition, threads, out);
+      Rendering.writeEdges(detail.getEdges(), edge -> edge.type == EdgeType.EXTENDS,
+          this::describeInheritance, threads, out);
+    }
+    out.append(FILE_POSTAMBLE);
   }
 
   @Override
@@ -1,14 +1,106 @@
 package com.iluwatar.urm.presenters;
 
+import com.iluwatar.urm.concurrent.WorkerPool;
 import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.DomainGraph;
 import com.iluwatar.urm.domain.Edge;
-
+import com.iluwatar.urm.domain.LevelOfDetail;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public interface Presenter {
 
   Representation describe(List<DomainClass> domainObjects, List<Edge> edges);
 
+  /**
+   * describe a compact domain graph, by default through the lists of its classes and edges.
+   * @param graph the domain graph
+   * @return the representation
+   */
+  default Representation describe(DomainGraph graph) {
+    return describe(graph.toClasses(), graph.toEdges());
+  }
+
+  /**
+   * describe the part of a model fitting into a level of detail.
+   * @param detail the classes and edges or the collapsed packages to show
+   * @return the representation
+   */
+  default Representation describe(LevelOfDetail detail) {
+    return Representation.render(this, out -> write(detail, out));
+  }
+
+  /**
+   * render the diagram piece by piece, so it never has to be held in memory as a whole.
+   * Presenters that only implement {@link #describe(List, List)} append its content.
+   * @param domainObjects the domain classes
+   * @param edges the edges between them
+   * @param out receives the diagram
+   * @throws IOException if appending fails
+   */
+  default void write(List<DomainClass> domainObjects, List<Edge> edges, Appendable out)
+      throws IOException {
+    out.append(describe(domainObjects, edges).getContent());
+  }
+
+  /**
+   * render the diagram listing at most a number of members of each class. Presenters that list
+   * members pick them through {@link DomainClass#getMembers(int)}, by default all members are
+   * left to {@link #write(List, List, Appendable)}.
+   * @param domainObjects the domain classes
+   * @param edges the edges between them
+   * @param maxMembers maximum number of members listed per class
+   * @param out receives the diagram
+   * @throws IOException if appending fails
+   */
+  default void write(List<DomainClass> domainObjects, List<Edge> edges, int maxMembers,
+                     Appendable out) throws IOException {
+    write(domainObjects, edges, out);
+  }
+
+  /**
+   * render the diagram as UTF-8 into a channel, which is left open.
+   * @param domainObjects the domain classes
+   * @param edges the edges between them
+   * @param channel receives the diagram
+   * @throws IOException if writing fails
+   */
+  default void write(List<DomainClass> domainObjects, List<Edge> edges,
+                     WritableByteChannel channel) throws IOException {
+    write(LevelOfDetail.full(domainObjects, edges), channel);
+  }
+
+  /**
+   * render the part of a model fitting into a level of detail. Presenters that only render
+   * lists of classes and edges show the classes of collapsed packages instead of the packages,
+   * with the member budget passed to {@link #write(List, List, int, Appendable)}.
+   * @param detail the classes and edges or the collapsed packages to show
+   * @param out receives the diagram
+   * @throws IOException if appending fails
+   */
+  default void write(LevelOfDetail detail, Appendable out) throws IOException {
+    LevelOfDetail expanded = detail.expand();
+    write(expanded.getDomainClasses(), expanded.getEdges(), expanded.getMaxMembers(), out);
+  }
+
+  /**
+   * render the part of a model fitting into a level of detail as UTF-8 into a channel, which
+   * is left open.
+   * @param detail the classes and edges or the collapsed packages to show
+   * @param channel receives the diagram
+   * @throws IOException if writing fails
+   */
+  default void write(LevelOfDetail detail, WritableByteChannel channel) throws IOException {
+    Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    write(detail, writer);
+    writer.flush();
+  }
+
   String getFileEnding();
 
   /**
@@ -17,13 +109,23 @@ public interface Presenter {
    * @return chosen Presenter
    */
   static Presenter parse(String presenterString) {
+    return parse(presenterString, WorkerPool.DEFAULT_THREADS);
+  }
+
+  /**
+   * Factory method for {@link Presenter}, presenters are stateless and shared by all callers.
+   * @param presenterString as a String
+   * @param threads maximum number of threads rendering the diagram
+   * @return chosen Presenter
+   */
+  static Presenter parse(String presenterString, int threads) {
     if (presenterString == null || presenterString.equalsIgnoreCase("plantuml")) {
-      return new PlantUmlPresenter();
+      return SharedPresenters.get("plantuml", threads, PlantUmlPresenter::new);
     } else if (presenterString.equalsIgnoreCase("graphviz")) {
-      return new GraphvizPresenter();
+      return SharedPresenters.get("graphviz", threads, GraphvizPresenter::new);
     } else if (presenterString.equalsIgnoreCase("mermaid")) {
-      return new MermaidPresenter();
+      return SharedPresenters.get("mermaid", threads, MermaidPresenter::new);
     }
-    return new PlantUmlPresenter();
+    return SharedPresenters.get("plantuml", threads, PlantUmlPresenter::new);
   }
 }
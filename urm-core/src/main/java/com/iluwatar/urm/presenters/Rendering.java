@@ -0,0 +1,97 @@
+package com.iluwatar.urm.presenters;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import com.google.common.collect.Lists;
+import com.iluwatar.urm.concurrent.WorkerPool;
+import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.Edge;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Renders the blocks of a diagram on worker threads and writes them in a fixed order, the
+ * output does not depend on the number of threads.
+ */
+final class Rendering {
+
+  private static final int EDGES_PER_BLOCK = 512;
+
+  /**
+   * group the classes by package.
+   * @param domainClasses the classes
+   * @return the classes of each package, packages sorted by name
+   */
+  static List<List<DomainClass>> groupByPackage(List<DomainClass> domainClasses) {
+    return new ArrayList<>(domainClasses.stream()
+        .collect(groupingBy(DomainClass::getPackageName, TreeMap::new, toList()))
+        .values());
+  }
+
+  /**
+   * render the classes of a package.
+   * @param domainClasses classes of one package
+   * @param describer renders a class
+   * @return the rendered classes, classes rendering the same, e.g. nested classes of the same
+   *     name, are listed once
+   */
+  static String describeDistinct(List<DomainClass> domainClasses,
+                                 Function<DomainClass, String> describer) {
+    StringBuilder sb = new StringBuilder();
+    Set<String> described = new HashSet<>();
+    for (DomainClass domainClass : domainClasses) {
+      String description = describer.apply(domainClass);
+      if (described.add(description)) {
+        sb.append(description);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * render the blocks concurrently and write them in the order of the items.
+   * @param items items rendered to one block each
+   * @param describer renders an item, called from several threads
+   * @param threads maximum number of threads
+   * @param out receives the blocks
+   * @throws IOException if writing fails
+   */
+  static <T> void writeBlocks(List<T> items, Function<T, String> describer, int threads,
+                              Appendable out) throws IOException {
+    WorkerPool.forEachInOrder(items, describer, threads, out::append);
+  }
+
+  /**
+   * render the accepted edges concurrently, a few hundred edges per task, and write them in
+   * the order they are given.
+   * @param edges all edges
+   * @param filter accepts the edges to render
+   * @param describer renders an edge, called from several threads
+   * @param threads maximum number of threads
+   * @param out receives the edges
+   * @throws IOException if writing fails
+   */
+  static void writeEdges(List<Edge> edges, Predicate<Edge> filter,
+                         Function<Edge, String> describer, int threads, Appendable out)
+      throws IOException {
+    List<Edge> accepted = edges.stream().filter(filter).collect(toList());
+    writeBlocks(Lists.partition(accepted, EDGES_PER_BLOCK), block -> {
+      StringBuilder sb = new StringBuilder();
+      for (Edge edge : block) {
+        sb.append(describer.apply(edge));
+      }
+      return sb.toString();
+    }, threads, out);
+  }
+
+  private Rendering() {
+    // private constructor for utility class
+  }
+}
@@ -1,5 +1,11 @@
 package com.iluwatar.urm.presenters;
 
+import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.Edge;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
 /**
  * Created by moe on 15.04.16.
  */
@@ -13,6 +19,23 @@ public class Representation {
     this.fileEnding = fileEnding;
   }
 
+  // for presenters implementing Presenter#write, collects what they write
+  static Representation render(Presenter presenter, List<DomainClass> domainObjects,
+                               List<Edge> edges) {
+    return render(presenter, out -> presenter.write(domainObjects, edges, out));
+  }
+
+  static Representation render(Presenter presenter, Content writer) {
+    StringBuilder content = new StringBuilder();
+    try {
+      writer.writeTo(content);
+    } catch (IOException e) {
+      // appending to a StringBuilder does not fail
+      throw new UncheckedIOException(e);
+    }
+    return new Representation(content.toString(), presenter.getFileEnding());
+  }
+
   public String getContent() {
     return content;
   }
@@ -21,4 +44,8 @@ public class Representation {
     return fileEnding;
   }
 
+  // what a presenter writes for a representation
+  interface Content {
+    void writeTo(Appendable out) throws IOException;
+  }
 }
@@ -0,0 +1,23 @@
+package com.iluwatar.urm.presenters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * One instance per presenter type and thread count, handed out by {@link Presenter#parse}.
+ * The presenters keep no state between calls, so a single instance serves any number of
+ * concurrent callers.
+ */
+final class SharedPresenters {
+
+  private static final Map<String, Presenter> PRESENTERS = new ConcurrentHashMap<>();
+
+  static Presenter get(String name, int threads, IntFunction<Presenter> factory) {
+    return PRESENTERS.computeIfAbsent(name + ":" + threads, key -> factory.apply(threads));
+  }
+
+  private SharedPresenters() {
+    // private constructor for utility class
+  }
+}
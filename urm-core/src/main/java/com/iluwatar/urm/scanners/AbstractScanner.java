@@ -1,38 +1,36 @@
 package com.iluwatar.urm.scanners;
 
+import com.iluwatar.urm.domain.DomainClass;
+import java.util.Collections;
 import java.util.List;
 
 class AbstractScanner {
   final List<Class<?>> classes;
+  final DomainClassIndex index;
 
   AbstractScanner(final List<Class<?>> classes) {
+    this(classes, new DomainClassIndex(classes));
+  }
+
+  AbstractScanner(final DomainClassIndex index) {
+    this(Collections.emptyList(), index);
+  }
+
+  AbstractScanner(final List<Class<?>> classes, final DomainClassIndex index) {
     this.classes = classes;
+    this.index = index;
   }
 
   boolean isDomainClass(final Class<?> clazz) {
-    return classes.contains(clazz);
+    return index.contains(clazz);
   }
 
   boolean isDomainClass(final String name) {
-    for (Class<?> clazz : classes) {
-      if (clazz.getName().equals(stripClassHeader(name))) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  String stripClassHeader(final String fullToString) {
-    if (fullToString.startsWith("class ")) {
-      return convertFromAsmToComplete(fullToString.substring(6));
-    } else if (fullToString.startsWith("interface ")) {
-      return convertFromAsmToComplete(fullToString.substring(10));
-    }
-    return convertFromAsmToComplete(fullToString);
+    return index.contains(name);
   }
 
-  String convertFromAsmToComplete(String original) {
-    return original.replace('/', '.');
+  DomainClass domainClass(final Class<?> clazz) {
+    return index.getRegistry().get(clazz);
   }
 
 }
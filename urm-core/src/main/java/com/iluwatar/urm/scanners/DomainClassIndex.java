@@ -0,0 +1,153 @@
+package com.iluwatar.urm.scanners;
+
+import com.iluwatar.urm.classpath.ClassDescriptor;
+import com.iluwatar.urm.domain.DomainClassRegistry;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Membership index of the domain classes, shared by all scanners of a run.
+ *
+ * <p>Type names are looked up by a hash lookup. Besides the binary name every class is
+ * registered with the {@code class } and {@code interface } prefixes
+ * {@link java.lang.reflect.Type#toString()} puts in front of it, so names need no rewriting
+ * when they are looked up.</p>
+ *
+ * <p>An index built from {@link ClassDescriptor}s knows all domain classes by name but loads
+ * each class on its first lookup only, so scanning can start before all classes are loaded.
+ * Classes that fail to load are no domain classes.</p>
+ *
+ * <p>The index also carries the {@link DomainClassRegistry} of the run, so every scanner
+ * sharing the index puts the same {@link com.iluwatar.urm.domain.DomainClass} instances
+ * on its edges.</p>
+ */
+public final class DomainClassIndex {
+
+  private static final String CLASS_PREFIX = "class ";
+  private static final String INTERFACE_PREFIX = "interface ";
+
+  private final Set<String> names;
+  private final Map<String, String> binaryNames;
+  private final Map<String, ClassDescriptor> descriptors;
+  private final ClassLoader[] classLoaders;
+  private final Map<String, Class<?>> classesByName = new ConcurrentHashMap<>();
+  private final Set<String> unloadable = ConcurrentHashMap.newKeySet();
+  private final DomainClassRegistry registry;
+  private final int size;
+
+  public DomainClassIndex(Collection<Class<?>> classes) {
+    this(classes, new DomainClassRegistry());
+  }
+
+  /**
+   * build the index.
+   * @param classes the domain classes
+   * @param registry registry of the domain classes of the run
+   */
+  public DomainClassIndex(Collection<Class<?>> classes, DomainClassRegistry registry) {
+    this(classes.stream().map(Class::getName).collect(Collectors.toList()),
+        Collections.emptyMap(), null, registry);
+    for (Class<?> clazz : classes) {
+      classesByName.putIfAbsent(clazz.getName(), clazz);
+    }
+  }
+
+  /**
+   * build the index of classes that are loaded when they are first looked up.
+   * @param descriptors descriptors of the domain classes
+   * @param classLoaders class loaders of the domain classes
+   * @param registry registry of the domain classes of the run
+   */
+  public DomainClassIndex(Collection<ClassDescriptor> descriptors, ClassLoader[] classLoaders,
+                          DomainClassRegistry registry) {
+    this(descriptors.stream().map(ClassDescriptor::getName).collect(Collectors.toList()),
+        descriptors.stream().collect(Collectors.toMap(ClassDescriptor::getName,
+            Function.identity(), (first, second) -> first)),
+        classLoaders, registry);
+  }
+
+  private DomainClassIndex(List<String> classNames, Map<String, ClassDescriptor> descriptors,
+                           ClassLoader[] classLoaders, DomainClassRegistry registry) {
+    this.descriptors = descriptors;
+    this.classLoaders = classLoaders;
+    this.registry = registry;
+    Set<String> typeNames = new HashSet<>();
+    Map<String, String> byName = new HashMap<>();
+    for (String name : classNames) {
+      byName.put(name, name);
+      byName.put(name.replace('.', '/'), name);
+      typeNames.add(name);
+      typeNames.add(CLASS_PREFIX + name);
+      typeNames.add(INTERFACE_PREFIX + name);
+    }
+    this.names = Collections.unmodifiableSet(typeNames);
+    this.binaryNames = Collections.unmodifiableMap(byName);
+    this.size = (int) classNames.stream().distinct().count();
+  }
+
+  /**
+   * look up a class.
+   * @param clazz the class
+   * @return true if the class is a domain class
+   */
+  public boolean contains(Class<?> clazz) {
+    return clazz != null && get(clazz.getName()) == clazz;
+  }
+
+  /**
+   * look up a type name.
+   * @param name binary or internal name, optionally prefixed by {@code class } or
+   *     {@code interface } as in {@link java.lang.reflect.Type#toString()}
+   * @return true if the name denotes a domain class
+   */
+  public boolean contains(String name) {
+    if (names.contains(name)) {
+      return true;
+    }
+    return name.indexOf('/') >= 0 && names.contains(name.replace('/', '.'));
+  }
+
+  /**
+   * look up a domain class by its name, loading it on first use.
+   * @param name binary or internal name of the class
+   * @return the class or null if it is no domain class
+   */
+  public Class<?> get(String name) {
+    String binaryName = binaryNames.get(name);
+    if (binaryName == null) {
+      return null;
+    }
+    Class<?> clazz = classesByName.get(binaryName);
+    return clazz != null ? clazz : load(binaryName);
+  }
+
+  private Class<?> load(String binaryName) {
+    ClassDescriptor descriptor = descriptors.get(binaryName);
+    if (descriptor == null || unloadable.contains(binaryName)) {
+      return null;
+    }
+    // concurrent lookups of a class wait for the one loading it
+    Class<?> clazz = classesByName.computeIfAbsent(binaryName,
+        name -> descriptor.load(classLoaders));
+    if (clazz == null) {
+      unloadable.add(binaryName);
+    }
+    return clazz;
+  }
+
+  public DomainClassRegistry getRegistry() {
+    return registry;
+  }
+
+  public int size() {
+    return size;
+  }
+}
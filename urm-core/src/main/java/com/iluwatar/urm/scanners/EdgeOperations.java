@@ -9,9 +9,14 @@ import com.iluwatar.urm.domain.DomainClass;
 import com.iluwatar.urm.domain.Edge;
 import com.iluwatar.urm.domain.EdgeType;
 
-import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -21,16 +26,15 @@ public class EdgeOperations {
 
   /**
    * method for creating new edges.
-   * @param sourceClass type of class
-   * @param field type of class
+   * @param source class holding the reference
+   * @param target referenced class
    * @param type type of EdgeType
-   * @param name type of string
+   * @param name name of the reference, describes the source end of the edge
    * @return
    */
-  public static Edge createEdge(Class<?> sourceClass, Class<?> field, EdgeType type, String name) {
-    DomainClass source = new DomainClass(sourceClass, name);
-    DomainClass target = new DomainClass(field);
-    return new Edge(source, target, type, Direction.UNI_DIRECTIONAL);
+  public static Edge createEdge(DomainClass source, DomainClass target, EdgeType type,
+                                String name) {
+    return new Edge(source, name, target, null, type, Direction.UNI_DIRECTIONAL);
   }
 
   /**
@@ -40,53 +44,66 @@ public class EdgeOperations {
    * @return
    */
   public static List<Edge> mergeBiDirectionals(List<Edge> edges) {
-    HashSet<Edge> noDuplicateSet = new HashSet<>(edges);
-    Collection<List<Edge>> groupedEdges = groupEdges(noDuplicateSet);
-    List<Edge> uniDirectionals = takeSingleItemsGroups(groupedEdges);
-    List<Edge> biDirectionals = mergeNonSingleGroups(groupedEdges);
+    List<Edge> uniDirectionals = Lists.newArrayList();
+    List<Edge> multiReferenceUniDirectionals = Lists.newArrayList();
+    List<Edge> biDirectionals = Lists.newArrayList();
+    for (MergedPair pair : mergePairs(edges)) {
+      if (pair.part == MergedPair.UNI_DIRECTIONAL) {
+        uniDirectionals.addAll(pair.edges);
+      } else if (pair.part == MergedPair.MULTI_REFERENCE_UNI_DIRECTIONAL) {
+        multiReferenceUniDirectionals.addAll(pair.edges);
+      } else {
+        biDirectionals.addAll(pair.edges);
+      }
+    }
     List<Edge> mergedEdges = Lists.newArrayList();
     mergedEdges.addAll(uniDirectionals);
+    mergedEdges.addAll(multiReferenceUniDirectionals);
     mergedEdges.addAll(biDirectionals);
     return mergedEdges;
   }
 
-  private static List<Edge> takeSingleItemsGroups(Collection<List<Edge>> groupedEdges) {
-    return groupedEdges.stream()
-        .filter(edgeGroup -> edgeGroup.size() == 1 || 1 == edgeGroup.stream()
-            .filter(e -> e.type.isCardinality())
-            .count())
-        .flatMap(Collection::stream)
-        .collect(toList());
-  }
-
-  private static List<Edge> mergeNonSingleGroups(Collection<List<Edge>> groupedEdges) {
-    List<List<List<Edge>>> edgeGroups = groupedEdges.stream()
-        .filter(edgeGroup -> edgeGroup.size() > 1 && 1 < edgeGroup.stream()
-            .filter(e -> e.type.isCardinality())
-            .count())
-        .map(EdgeOperations::groupBySource)
-        .collect(toList());
-    List<Edge> multiReferenceUniDirectionals = edgeGroups.stream()
-        .filter(sourceGroups -> sourceGroups.size() == 1)
-        .flatMap(Collection::stream)
-        .flatMap(Collection::stream)
-        .collect(toList());
-    List<Edge> biDirectionals = edgeGroups.stream()
-        .filter(sourceGroups -> sourceGroups.size() == 2)
-        .map(EdgeOperations.Tuple::createPairs)
-        .flatMap(Collection::stream)
-        .map(EdgeOperations::mergeEdges)
-        .collect(toList());
-    List<Edge> newEdges = Lists.newArrayList();
-    newEdges.addAll(multiReferenceUniDirectionals);
-    newEdges.addAll(biDirectionals);
-    return newEdges;
-  }
+  /**
+   * merge the edges between each pair of classes on their own, see
+   * {@link #mergeBiDirectionals(List)}, which lists the merged edges of all pairs by part.
+   * @param edges the edges
+   * @return the merged edges of every pair in the order the pairs first appear in the edges
+   */
+  static List<MergedPair> mergePairs(List<Edge> edges) {
+    // one pass drops duplicates and groups the edges by the unordered pair of their classes,
+    // classes are identified by compact ids handed out per package and simple name
+    ClassIds ids = new ClassIds();
+    Set<Edge> noDuplicateSet = new HashSet<>(edges.size() * 2);
+    Map<Long, EdgeGroup> groupedEdges = new LinkedHashMap<>();
+    for (Edge edge : edges) {
+      if (noDuplicateSet.add(edge)) {
+        int sourceId = ids.of(edge.source.getClazz());
+        int targetId = ids.of(edge.target.getClazz());
+        long pairId = sourceId < targetId
+            ? (long) sourceId << 32 | targetId
+            : (long) targetId << 32 | sourceId;
+        groupedEdges.computeIfAbsent(pairId, id -> new EdgeGroup()).add(edge);
+      }
+    }
 
-  private static Collection<List<Edge>> groupEdges(Set<Edge> edges) {
-    return edges.stream()
-        .collect(groupingBy(EdgeOperations::sameSourceAndTarget))
-        .values();
+    List<MergedPair> mergedPairs = new ArrayList<>(groupedEdges.size());
+    for (EdgeGroup group : groupedEdges.values()) {
+      if (group.edges.size() == 1 || group.cardinalities == 1) {
+        mergedPairs.add(new MergedPair(MergedPair.UNI_DIRECTIONAL, group.edges));
+      } else if (group.cardinalities > 1) {
+        List<List<Edge>> sourceGroups = groupBySource(group.edges);
+        if (sourceGroups.size() == 1) {
+          mergedPairs.add(new MergedPair(MergedPair.MULTI_REFERENCE_UNI_DIRECTIONAL,
+              sourceGroups.get(0)));
+        } else if (sourceGroups.size() == 2) {
+          mergedPairs.add(new MergedPair(MergedPair.BI_DIRECTIONAL,
+              EdgeOperations.Tuple.createPairs(sourceGroups).stream()
+                  .map(EdgeOperations::mergeEdges)
+                  .collect(toList())));
+        }
+      }
+    }
+    return mergedPairs;
   }
 
   private static List<List<Edge>> groupBySource(List<Edge> edges) {
@@ -98,14 +115,9 @@ public class EdgeOperations {
   private static Edge mergeEdges(Tuple<Edge, Edge> edgePair) {
     Edge source = edgePair.left;
     Edge target = edgePair.right;
-    return new Edge(source.source, target.source,
-        EdgeType.resolveEdgeType(source.type, target.type), Direction.BI_DIRECTIONAL);
-  }
-
-  private static UnorderedTuple<?, ?> sameSourceAndTarget(Edge edge) {
-    String sourceId = edge.source.getPackageName() + "." + edge.source.getClassName();
-    String targetId = edge.target.getPackageName() + "." + edge.target.getClassName();
-    return UnorderedTuple.of(sourceId, targetId);
+    return new Edge(source.source, source.sourceDescription, target.source,
+        target.sourceDescription, EdgeType.resolveEdgeType(source.type, target.type),
+        Direction.BI_DIRECTIONAL);
   }
 
   /**
@@ -144,32 +156,144 @@ public class EdgeOperations {
         && d.direction.equals(e.direction);
   }
 
-  private static class UnorderedTuple<X, Y> extends Tuple<X, Y> {
+  /**
+   * The edges of one class in the order they were added, indexed by their relation: the
+   * classes at both ends, the type and the direction. Finding the relation of an edge is a hash
+   * lookup on the class ids instead of a scan comparing names, with the same outcome as
+   * {@link #getMatchingRelation(List, Edge)} on the list of edges.
+   */
+  static final class Relations {
+    private final ClassIds ids = new ClassIds();
+    private final List<Edge> edges = new ArrayList<>();
+    // positions of the edges of each relation, ascending; removed edges leave a null
+    private final Map<RelationKey, ArrayDeque<Integer>> positions = new HashMap<>();
+    private int size;
 
-    public UnorderedTuple(X left, Y right) {
-      super(left, right);
+    boolean contains(Edge edge) {
+      return positions.containsKey(keyOf(edge));
     }
 
-    @Override
-    public int hashCode() {
-      return left.hashCode() + right.hashCode();
+    /**
+     * the first edge added with the relation of an edge.
+     * @param edge the edge
+     * @return the edge with the same relation
+     */
+    Optional<Edge> getMatching(Edge edge) {
+      ArrayDeque<Integer> relation = positions.get(keyOf(edge));
+      return relation == null ? Optional.empty() : Optional.of(edges.get(relation.getFirst()));
+    }
+
+    void add(Edge edge) {
+      positions.computeIfAbsent(keyOf(edge), key -> new ArrayDeque<>(1)).addLast(edges.size());
+      edges.add(edge);
+      size++;
+    }
+
+    /**
+     * remove the first edge with the relation of an edge.
+     * @param edge the edge
+     */
+    void removeMatching(Edge edge) {
+      RelationKey key = keyOf(edge);
+      ArrayDeque<Integer> relation = positions.get(key);
+      if (relation != null) {
+        edges.set(relation.removeFirst(), null);
+        size--;
+        if (relation.isEmpty()) {
+          positions.remove(key);
+        }
+      }
+    }
+
+    List<Edge> toList() {
+      List<Edge> list = new ArrayList<>(size);
+      for (Edge edge : edges) {
+        if (edge != null) {
+          list.add(edge);
+        }
+      }
+      return list;
+    }
+
+    private RelationKey keyOf(Edge edge) {
+      long classes = (long) ids.of(edge.source.getClazz()) << 32 | ids.of(edge.target.getClazz());
+      return new RelationKey(classes, edge.type, edge.direction);
+    }
+  }
+
+  private static final class RelationKey {
+    private final long classes;
+    private final EdgeType type;
+    private final Direction direction;
+
+    private RelationKey(long classes, EdgeType type, Direction direction) {
+      this.classes = classes;
+      this.type = type;
+      this.direction = direction;
     }
 
     @Override
     public boolean equals(Object obj) {
-      if (obj == null) {
-        return false;
-      } else if (obj instanceof UnorderedTuple) {
-        UnorderedTuple<?, ?> tuple = (UnorderedTuple) obj;
-        return this.left.equals(tuple.left) && this.right.equals(tuple.right)
-            || this.left.equals(tuple.right) && this.right.equals(tuple.left);
-      } else {
+      if (!(obj instanceof RelationKey)) {
         return false;
       }
+      RelationKey key = (RelationKey) obj;
+      return classes == key.classes && type == key.type && direction == key.direction;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(classes) * 31 * 31 + type.hashCode() * 31 + direction.hashCode();
     }
+  }
 
-    public static <X, Y> UnorderedTuple<X, Y> of(X source, Y target) {
-      return new UnorderedTuple<>(source, target);
+  /**
+   * Hands out dense ids to classes. Classes with the same package and simple name share an id,
+   * as edges have always been grouped by these names.
+   */
+  private static class ClassIds {
+    private final Map<Class<?>, Integer> idsByClass = new IdentityHashMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+
+    int of(Class<?> clazz) {
+      Integer id = idsByClass.get(clazz);
+      if (id == null) {
+        String name = clazz.getPackage().getName() + "." + clazz.getSimpleName();
+        id = idsByName.computeIfAbsent(name, n -> idsByName.size());
+        idsByClass.put(clazz, id);
+      }
+      return id;
+    }
+  }
+
+  /**
+   * The merged edges between one pair of classes and the part of the merged edge list they
+   * belong to.
+   */
+  static final class MergedPair {
+    static final int UNI_DIRECTIONAL = 0;
+    static final int MULTI_REFERENCE_UNI_DIRECTIONAL = 1;
+    static final int BI_DIRECTIONAL = 2;
+    static final int PARTS = 3;
+
+    final int part;
+    final List<Edge> edges;
+
+    MergedPair(int part, List<Edge> edges) {
+      this.part = part;
+      this.edges = edges;
+    }
+  }
+
+  private static class EdgeGroup {
+    private final List<Edge> edges = new ArrayList<>(2);
+    private int cardinalities;
+
+    void add(Edge edge) {
+      edges.add(edge);
+      if (edge.type.isCardinality()) {
+        cardinalities++;
+      }
     }
   }
 
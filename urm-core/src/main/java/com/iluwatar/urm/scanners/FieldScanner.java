@@ -1,39 +1,55 @@
 package com.iluwatar.urm.scanners;
 
-import static java.util.Optional.empty;
-import static java.util.Optional.of;
-
-import com.iluwatar.urm.DomainClassFinder;
+import com.iluwatar.urm.classpath.ClassSnapshot;
+import com.iluwatar.urm.classpath.FieldDescriptor;
+import com.iluwatar.urm.classpath.InnerClassDescriptor;
+import com.iluwatar.urm.concurrent.WorkerPool;
 import com.iluwatar.urm.domain.Edge;
 import com.iluwatar.urm.domain.EdgeType;
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.FieldVisitor;
+import java.util.concurrent.ConcurrentHashMap;
 import org.objectweb.asm.Opcodes;
-import org.reflections.ReflectionUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 
 public class FieldScanner extends AbstractScanner {
 
   private static final String NAME_FOR_INNERCLASS = null;
-  private static final String innerClassFieldReferenceInBytecode = "this$0";
 
-  private final Logger logger = LoggerFactory.getLogger(FieldScanner.class);
+  private final int threads;
+  // field types and nested classes repeat across classes, each one is resolved once per scan
+  private final Map<String, FieldTargets> targetsBySignature = new ConcurrentHashMap<>();
+  private final Map<String, Optional<Edge>> innerClassEdges = new ConcurrentHashMap<>();
 
   public FieldScanner(final List<Class<?>> classes) {
-    super(classes);
+    this(classes, new DomainClassIndex(classes));
+  }
+
+  /**
+   * constructor for a scanner of single classes, see {@link #getEdges(Class)}.
+   * @param index membership index of the domain classes
+   */
+  public FieldScanner(final DomainClassIndex index) {
+    super(index);
+    this.threads = 1;
+  }
+
+  public FieldScanner(final List<Class<?>> classes, final DomainClassIndex index) {
+    this(classes, index, WorkerPool.DEFAULT_THREADS);
+  }
+
+  /**
+   * constructor for the class.
+   * @param classes the domain classes
+   * @param index membership index of the domain classes
+   * @param threads number of threads extracting the edges of the classes
+   */
+  public FieldScanner(final List<Class<?>> classes, final DomainClassIndex index,
+                      final int threads) {
+    super(classes, index);
+    this.threads = threads;
   }
 
   /**
@@ -41,126 +57,91 @@ public class FieldScanner extends AbstractScanner {
    * @return
    */
   public List<Edge> getEdges() {
+    // each class is scanned into its own list, the lists are joined in the order of the classes
     List<Edge> edges = new ArrayList<>();
-    for (Class<?> clazz : classes) {
-      edges.addAll(extractFieldEdges(clazz));
+    for (List<Edge> classEdges : WorkerPool.map(classes, this::getEdges, threads)) {
+      edges.addAll(classEdges);
     }
     return EdgeOperations.mergeBiDirectionals(edges);
   }
 
-  private List<Edge> extractFieldEdges(Class<?> clazz) {
-    List<Edge> fieldEdges = new ArrayList<>();
-    try {
-      InputStream is = clazz.getClassLoader().getResourceAsStream(
-          clazz.getName().replace(".", "/") + ".class");
-      ClassReader reader = new ClassReader(is);
-      reader.accept(new ClassVisitor(Opcodes.ASM7) {
-        @Override
-        public FieldVisitor visitField(int access, String name,
-                                       String desc, String signature, Object value) {
-          try {
-            Optional<Edge> fieldEdge = createFieldEdge(clazz, clazz.getDeclaredField(name));
-            if (fieldEdge.isPresent()) {
-              if (EdgeOperations.relationAlreadyExists(fieldEdges, fieldEdge.get())) {
-                Optional<Edge> relation = EdgeOperations.getMatchingRelation(
-                    fieldEdges, fieldEdge.get());
-                if (relation.isPresent()) {
-                  fieldEdges.remove(relation.get());
-                  fieldEdges.add(new Edge(relation.get().source,
-                      relation.get().target, EdgeType.ONE_TO_MANY, relation.get().direction));
-                }
-              } else {
-                fieldEdges.add(fieldEdge.get());
-              }
-            }
-          } catch (NoSuchFieldException e) {
-            // should never happen
-          } catch (NoClassDefFoundError e) {
-            logger.warn("Skipped field " + name + " in class " + clazz.getName()
-                + " because it's type class is not available. Field description: " + desc);
-          }
-          return super.visitField(access, name, desc, signature, value);
-        }
-
-        @Override
-        public void visitInnerClass(String name, String outerName, String innerName, int access) {
-          if (innerName == null || outerName == null
-              || name.startsWith("java/")) {
-            // abort if anonymous or standard java class
-            // (latter needed because of java.util.MethodHandles)
-            return;
-          }
-          Class<?> outerClass = ReflectionUtils.forName(outerName.replaceAll("/", "."),
-              DomainClassFinder.classLoaders);
-          Class<?> innerClass = ReflectionUtils.forName(name.replaceAll("/", "."),
-              DomainClassFinder.classLoaders);
-          if (innerClass.equals(outerClass) || clazz.equals(outerClass)) {
-            // To ensure we only add one Relation for each couple,
-            // the outerClass relations are thrown aboard
-            return;
-          }
-
-          Edge innerClassEdge;
-          if ((innerClass.getModifiers() & Modifier.STATIC) > 0) {
-            innerClassEdge = EdgeOperations.createEdge(innerClass, outerClass,
-                EdgeType.STATIC_INNER_CLASS, NAME_FOR_INNERCLASS);
-          } else {
-            innerClassEdge = EdgeOperations.createEdge(innerClass, outerClass,
-                EdgeType.INNER_CLASS, NAME_FOR_INNERCLASS);
-          }
-
-          if (innerClassEdge != null) {
-            if (!EdgeOperations.relationAlreadyExists(fieldEdges, innerClassEdge)) {
-              fieldEdges.add(innerClassEdge);
-            }
-          }
-
-          super.visitInnerClass(name, outerName, innerName, access);
-        }
-      }, ClassReader.SKIP_CODE);
-    } catch (IOException e) {
-      logger.warn("Failed to read bytecode for class " + clazz.getName(), e);
+  /**
+   * method to get the edges of a single class, before bidirectional edges are merged.
+   * @param clazz class to scan
+   * @return the edges found in the bytecode of the class
+   */
+  public List<Edge> getEdges(Class<?> clazz) {
+    ClassSnapshot snapshot = ClassSnapshot.of(clazz);
+    if (snapshot == null) {
+      return new ArrayList<>();
+    }
+    EdgeOperations.Relations fieldEdges = new EdgeOperations.Relations();
+    // same order as a visit of the class file: inner class records precede the fields
+    for (InnerClassDescriptor innerClass : snapshot.getInnerClasses()) {
+      addInnerClassEdge(clazz, innerClass, fieldEdges);
     }
-    return fieldEdges;
+    for (FieldDescriptor field : snapshot.getDescriptor().getFields()) {
+      addFieldEdges(clazz, field, fieldEdges);
+    }
+    return fieldEdges.toList();
   }
 
-  private Optional<Edge> createFieldEdge(Class<?> clazz, Field field) {
-    if (field.isEnumConstant()) {
-      return empty(); // to prevent self-referencing we ignore all enum constants
+  private void addFieldEdges(Class<?> clazz, FieldDescriptor field,
+                             EdgeOperations.Relations fieldEdges) {
+    if ((field.getAccess() & (Opcodes.ACC_ENUM | Opcodes.ACC_SYNTHETIC)) != 0) {
+      // enum constants would reference their own class, synthetic fields such as this$0 and
+      // $VALUES are no part of the model
+      return;
+    }
+    FieldTargets targets = targetsBySignature.computeIfAbsent(FieldTargets.typeOf(field),
+        signature -> FieldTargets.of(signature, index, clazz.getClassLoader()));
+    if (targets.getOne() != null) {
+      addFieldEdge(EdgeOperations.createEdge(domainClass(clazz), domainClass(targets.getOne()),
+          EdgeType.ONE_TO_ONE, field.getName()), fieldEdges);
+      return;
     }
-    if (isDomainClass(field.getType())) {
-      if (!innerClassFieldReferenceInBytecode.equals(field.getName())) {
-        //return of(EdgeOperations.createEdge(clazz, (Class) field.getType(),
-        // EdgeType.INNER_CLASS, NAME_FOR_INNERCLASS));
-        return of(EdgeOperations.createEdge(clazz, (Class) field.getType(),
-            EdgeType.ONE_TO_ONE, field.getName()));
-      }
+    for (Class<?> target : targets.getMany()) {
+      addFieldEdge(EdgeOperations.createEdge(domainClass(clazz), domainClass(target),
+          EdgeType.ONE_TO_MANY, field.getName()), fieldEdges);
     }
-    if (isCollection(field)) {
-      Optional<Class<?>> classInCollection = getDomainClassFromCollection(field);
-      if (classInCollection.isPresent() && isDomainClass(classInCollection.get())) {
-        return of(EdgeOperations.createEdge(clazz, classInCollection.get(),
-            EdgeType.ONE_TO_MANY, field.getName()));
-      }
+  }
+
+  private void addFieldEdge(Edge fieldEdge, EdgeOperations.Relations fieldEdges) {
+    Optional<Edge> relation = fieldEdges.getMatching(fieldEdge);
+    if (relation.isPresent()) {
+      fieldEdges.removeMatching(fieldEdge);
+      fieldEdges.add(new Edge(relation.get().source, relation.get().sourceDescription,
+          relation.get().target, relation.get().targetDescription, EdgeType.ONE_TO_MANY,
+          relation.get().direction));
+    } else {
+      fieldEdges.add(fieldEdge);
     }
-    // TODO Extract Type Arguments too...
-    return empty();
   }
 
-  private Optional<Class<?>> getDomainClassFromCollection(final Field field) {
-    Type type = field.getGenericType();
-    if (type instanceof ParameterizedType) {
-      ParameterizedType pt = (ParameterizedType) type;
-      for (Type t : pt.getActualTypeArguments()) {
-        if (isDomainClass(t.toString())) {
-          return Optional.of((Class) t);
-        }
-      }
+  private void addInnerClassEdge(Class<?> clazz, InnerClassDescriptor record,
+                                 EdgeOperations.Relations fieldEdges) {
+    Optional<Edge> innerClassEdge = innerClassEdges.computeIfAbsent(record.getName(),
+        name -> createInnerClassEdge(record));
+    // To ensure we only add one Relation for each couple,
+    // the outerClass relations are thrown aboard
+    if (innerClassEdge.isPresent() && innerClassEdge.get().target.getClazz() != clazz
+        && !fieldEdges.contains(innerClassEdge.get())) {
+      fieldEdges.add(innerClassEdge.get());
     }
-    return empty();
   }
 
-  private boolean isCollection(final Field field) {
-    return Collection.class.isAssignableFrom(field.getType());
+  private Optional<Edge> createInnerClassEdge(InnerClassDescriptor record) {
+    if (record.getInnerName() == null || record.getOuterName() == null) {
+      return Optional.empty(); // anonymous or local class
+    }
+    Class<?> innerClass = index.get(record.getName());
+    Class<?> outerClass = index.get(record.getOuterName());
+    if (innerClass == null || outerClass == null) {
+      return Optional.empty();
+    }
+    EdgeType type = (record.getAccess() & Opcodes.ACC_STATIC) != 0
+        ? EdgeType.STATIC_INNER_CLASS : EdgeType.INNER_CLASS;
+    return Optional.of(EdgeOperations.createEdge(domainClass(innerClass),
+        domainClass(outerClass), type, NAME_FOR_INNERCLASS));
   }
 }
@@ -0,0 +1,184 @@
+package com.iluwatar.urm.scanners;
+
+import com.iluwatar.urm.classpath.FieldDescriptor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+
+/**
+ * The domain classes a field refers to, read from its generic signature or, for fields of a
+ * raw type, its descriptor.
+ *
+ * <p>A field whose type is a domain class refers to one instance of it. Domain classes that
+ * are the component of an array or a type argument of a {@link Collection} or {@link Map},
+ * at any depth as in {@code Map<K, List<V>>}, are referred to many times. Type arguments of
+ * other generic types, e.g. {@code Optional<V>}, are no references. Names are resolved
+ * against the {@link DomainClassIndex}, only generic types are loaded to tell whether they are
+ * collections, those of the class library by the platform class loader.</p>
+ */
+final class FieldTargets {
+
+  static final FieldTargets NONE = new FieldTargets(null, Collections.emptyList());
+
+  private final Class<?> one;
+  private final List<Class<?>> many;
+
+  private FieldTargets(Class<?> one, List<Class<?>> many) {
+    this.one = one;
+    this.many = many;
+  }
+
+  /**
+   * read the targets of a field type.
+   * @param signature generic signature or descriptor of the field type
+   * @param index the domain classes
+   * @param classLoader loads the generic types of the signature that are no domain classes
+   * @return the targets, {@link #NONE} if the type refers to no domain class
+   */
+  static FieldTargets of(String signature, DomainClassIndex index, ClassLoader classLoader) {
+    char sort = signature.charAt(0);
+    if (sort != 'L' && sort != '[') {
+      return NONE;
+    }
+    TargetCollector collector = new TargetCollector(index, classLoader);
+    new SignatureReader(signature).acceptType(collector);
+    if (collector.one == null && collector.many.isEmpty()) {
+      return NONE;
+    }
+    return new FieldTargets(collector.one, Collections.unmodifiableList(collector.many));
+  }
+
+  /**
+   * the type of a field as given in its class file.
+   * @param field the field
+   * @return the generic signature of the field or its descriptor if it has none
+   */
+  static String typeOf(FieldDescriptor field) {
+    return field.getSignature() != null ? field.getSignature() : field.getDescriptor();
+  }
+
+  /**
+   * the domain class that is the type of the field.
+   * @return the class or null if the field type is no domain class
+   */
+  Class<?> getOne() {
+    return one;
+  }
+
+  /**
+   * the distinct domain classes in array components and collection elements of the field type.
+   * @return the classes in the order they appear in the signature
+   */
+  List<Class<?>> getMany() {
+    return many;
+  }
+
+  /**
+   * Collects the domain classes of a type signature; a class type is resolved when it ends,
+   * after its type arguments, so nested and inner class types are resolved by their full name.
+   * Whether a type is referred to many times depends on the type it is nested in directly
+   * only, so it is decided when the type starts.
+   */
+  private static final class TargetCollector extends SignatureVisitor {
+    private final DomainClassIndex index;
+    private final ClassLoader classLoader;
+    // the class types being visited, the innermost on top
+    private final Deque<ClassType> types = new ArrayDeque<>();
+    private final List<Class<?>> many = new ArrayList<>();
+    private Class<?> one;
+    // whether the next type is an array component or a collection element
+    private boolean nextIsMany;
+
+    TargetCollector(DomainClassIndex index, ClassLoader classLoader) {
+      super(Opcodes.ASM7);
+      this.index = index;
+      this.classLoader = classLoader;
+    }
+
+    @Override
+    public SignatureVisitor visitArrayType() {
+      nextIsMany = true;
+      return this;
+    }
+
+    @Override
+    public void visitBaseType(char descriptor) {
+      nextIsMany = false;
+    }
+
+    @Override
+    public void visitTypeVariable(String name) {
+      nextIsMany = false;
+    }
+
+    @Override
+    public void visitClassType(String name) {
+      types.push(new ClassType(name, nextIsMany));
+      nextIsMany = false;
+    }
+
+    @Override
+    public void visitInnerClassType(String name) {
+      ClassType type = types.peek();
+      type.name = type.name + '$' + name;
+    }
+
+    @Override
+    public void visitTypeArgument() {
+      nextIsMany = false;
+    }
+
+    @Override
+    public SignatureVisitor visitTypeArgument(char wildcard) {
+      nextIsMany = isCollection(types.peek().name);
+      return this;
+    }
+
+    @Override
+    public void visitEnd() {
+      ClassType type = types.pop();
+      Class<?> target = index.get(type.name);
+      if (target == null) {
+        return;
+      }
+      if (type.many) {
+        if (!many.contains(target)) {
+          many.add(target);
+        }
+      } else if (types.isEmpty()) {
+        one = target;
+      }
+    }
+
+    private boolean isCollection(String name) {
+      Class<?> type = index.get(name);
+      if (type == null) {
+        try {
+          type = Class.forName(name.replace('/', '.'), false, name.startsWith("java/")
+              ? ClassLoader.getPlatformClassLoader() : classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+          // a missing type is no known collection
+          return false;
+        }
+      }
+      return Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+    }
+  }
+
+  private static final class ClassType {
+    private String name;
+    private final boolean many;
+
+    private ClassType(String name, boolean many) {
+      this.name = name;
+      this.many = many;
+    }
+  }
+}
@@ -1,11 +1,12 @@
 package com.iluwatar.urm.scanners;
 
-import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.classpath.ClassSnapshot;
 import com.iluwatar.urm.domain.Edge;
 import com.iluwatar.urm.domain.EdgeType;
-
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class HierarchyScanner extends AbstractScanner {
 
@@ -13,6 +14,18 @@ public class HierarchyScanner extends AbstractScanner {
     super(classes);
   }
 
+  /**
+   * constructor for a scanner of single classes, see {@link #getEdges(Class)}.
+   * @param index membership index of the domain classes
+   */
+  public HierarchyScanner(DomainClassIndex index) {
+    super(index);
+  }
+
+  public HierarchyScanner(List<Class<?>> classes, DomainClassIndex index) {
+    super(classes, index);
+  }
+
   /**
    * method to return edges from classes.
    * @return
@@ -20,23 +33,45 @@ public class HierarchyScanner extends AbstractScanner {
   public List<Edge> getEdges() {
     List<Edge> edges = new ArrayList<>();
     for (Class<?> clazz : classes) {
-      // show implemented interfaces
-      Class<?>[] interfaces = clazz.getInterfaces();
-      for (Class<?> interfaze : interfaces) {
-        if (isDomainClass(interfaze)) {
-          DomainClass child = new DomainClass(clazz);
-          DomainClass parent = new DomainClass(interfaze);
-          edges.add(new Edge(child, parent, EdgeType.EXTENDS));
-        }
-      }
-      // show superclass
-      Class<?> superclass = clazz.getSuperclass();
-      if (isDomainClass(superclass)) {
-        DomainClass child = new DomainClass(clazz);
-        DomainClass parent = new DomainClass(superclass);
-        edges.add(new Edge(child, parent, EdgeType.EXTENDS));
-      }
+      edges.addAll(getEdges(clazz));
     }
     return edges;
   }
+
+  /**
+   * method to return the edges of a single class.
+   * @param clazz class to scan
+   * @return edges to the domain interfaces and superclass of the class
+   */
+  public List<Edge> getEdges(Class<?> clazz) {
+    ClassSnapshot snapshot = ClassSnapshot.of(clazz);
+    List<String> interfaces;
+    String superclass;
+    if (snapshot != null) {
+      interfaces = snapshot.getDescriptor().getInterfaces();
+      superclass = snapshot.getDescriptor().getSuperName();
+    } else {
+      interfaces = Arrays.stream(clazz.getInterfaces())
+          .map(Class::getName)
+          .collect(Collectors.toList());
+      superclass = clazz.getSuperclass() == null ? null : clazz.getSuperclass().getName();
+    }
+    List<Edge> edges = new ArrayList<>();
+    // show implemented interfaces
+    for (String interfaze : interfaces) {
+      addEdge(clazz, interfaze, edges);
+    }
+    // show superclass
+    if (superclass != null) {
+      addEdge(clazz, superclass, edges);
+    }
+    return edges;
+  }
+
+  private void addEdge(Class<?> clazz, String parentName, List<Edge> edges) {
+    Class<?> parent = index.get(parentName);
+    if (parent != null) {
+      edges.add(new Edge(domainClass(clazz), domainClass(parent), EdgeType.EXTENDS));
+    }
+  }
 }
@@ -0,0 +1,510 @@
+package com.iluwatar.urm.scanners;
+
+import com.iluwatar.urm.DomainClassFinder;
+import com.iluwatar.urm.classpath.ClassFiles;
+import com.iluwatar.urm.classpath.ClassSnapshot;
+import com.iluwatar.urm.concurrent.WorkerPool;
+import com.iluwatar.urm.domain.Direction;
+import com.iluwatar.urm.domain.DomainClassRegistry;
+import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.domain.EdgeType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.stream.Collectors;
+import org.reflections.ReflectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans field and hierarchy edges like {@link FieldScanner} and {@link HierarchyScanner}, but
+ * only for the classes that changed since the previous run.
+ *
+ * <p>The state file keeps a fingerprint of every class file, the classes it references and the
+ * edges found in it, together with the merged field edges of the previous run. A class is
+ * rescanned when its fingerprint changed, when it is new or when a class it references was added
+ * or removed. Bidirectional edges are merged again only for the class pairs whose edges may have
+ * changed, the merged edges of all other pairs are taken over from the previous run. The
+ * merged edges are then listed in the order a full merge lists them.</p>
+ */
+public class IncrementalScanner {
+
+  private static final Logger log = LoggerFactory.getLogger(IncrementalScanner.class);
+  private static final int MAGIC = 0x55524d53;
+  private static final int VERSION = 2;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final List<Class<?>> classes;
+  private final FieldScanner fieldScanner;
+  private final HierarchyScanner hierarchyScanner;
+  private final Path stateFile;
+  private final int threads;
+  private Set<String> rescanned = Collections.emptySet();
+
+  /**
+   * create a scanner.
+   * @param classes the domain classes
+   * @param fieldScanner scanner for the field edges of a class
+   * @param hierarchyScanner scanner for the hierarchy edges of a class
+   * @param stateFile file holding the state of the previous run, created if missing
+   */
+  public IncrementalScanner(List<Class<?>> classes, FieldScanner fieldScanner,
+                            HierarchyScanner hierarchyScanner, Path stateFile) {
+    this(classes, fieldScanner, hierarchyScanner, stateFile, WorkerPool.DEFAULT_THREADS);
+  }
+
+  /**
+   * create a scanner that fingerprints and rescans classes on several threads.
+   * @param classes the domain classes
+   * @param fieldScanner scanner for the field edges of a class
+   * @param hierarchyScanner scanner for the hierarchy edges of a class
+   * @param stateFile file holding the state of the previous run, created if missing
+   * @param threads number of worker threads
+   */
+  public IncrementalScanner(List<Class<?>> classes, FieldScanner fieldScanner,
+                            HierarchyScanner hierarchyScanner, Path stateFile, int threads) {
+    this.classes = classes;
+    this.fieldScanner = fieldScanner;
+    this.hierarchyScanner = hierarchyScanner;
+    this.stateFile = stateFile;
+    this.threads = threads;
+  }
+
+  /**
+   * method to get the merged field edges followed by the hierarchy edges of all classes.
+   * @return the edges, as {@link FieldScanner#getEdges()} and
+   *     {@link HierarchyScanner#getEdges()} would return them
+   */
+  public List<Edge> getEdges() {
+    Map<String, Class<?>> classesByName = new LinkedHashMap<>();
+    for (Class<?> clazz : classes) {
+      classesByName.put(clazz.getName(), clazz);
+    }
+    State previous = readState();
+    try {
+      return scan(classesByName, previous);
+    } catch (UnresolvableClassException e) {
+      log.info("Rescanning all classes because " + e.getMessage());
+      return scan(classesByName, null);
+    }
+  }
+
+  /**
+   * names of the classes rescanned by the last call to {@link #getEdges()}.
+   * @return the class names
+   */
+  public Set<String> getRescannedClasses() {
+    return rescanned;
+  }
+
+  private List<Edge> scan(Map<String, Class<?>> classesByName, State previous) {
+    DomainClassRegistry registry = fieldScanner.index.getRegistry();
+    Map<String, ClassState> previousClasses = previous == null
+        ? Collections.emptyMap() : previous.classes;
+    List<String> classFingerprints = WorkerPool.map(classes, IncrementalScanner::fingerprint,
+        threads);
+    Map<String, String> fingerprints = new HashMap<>();
+    for (int i = 0; i < classes.size(); i++) {
+      fingerprints.put(classes.get(i).getName(), classFingerprints.get(i));
+    }
+
+    Set<String> addedOrRemoved = new HashSet<>();
+    addedOrRemoved.addAll(classesByName.keySet());
+    addedOrRemoved.removeAll(previousClasses.keySet());
+    Set<String> removed = new HashSet<>(previousClasses.keySet());
+    removed.removeAll(classesByName.keySet());
+    addedOrRemoved.addAll(removed);
+
+    Set<String> toScan = new LinkedHashSet<>();
+    for (String name : classesByName.keySet()) {
+      ClassState old = previousClasses.get(name);
+      if (old == null || fingerprints.get(name) == null
+          || !fingerprints.get(name).equals(old.fingerprint)
+          || !Collections.disjoint(old.references, addedOrRemoved)) {
+        toScan.add(name);
+      }
+    }
+
+    // pairs whose raw edges may differ from the previous run need to be merged again
+    Set<Set<String>> affectedPairs = new HashSet<>();
+    for (String name : removed) {
+      previousClasses.get(name).fieldEdges.forEach(edge -> affectedPairs.add(edge.pair()));
+    }
+    List<Class<?>> changed = toScan.stream()
+        .map(classesByName::get)
+        .collect(Collectors.toList());
+    Iterator<ClassState> scanned = WorkerPool.map(changed,
+        clazz -> scanClass(clazz, fingerprints.get(clazz.getName())), threads).iterator();
+    Map<String, ClassState> current = new LinkedHashMap<>();
+    for (Class<?> clazz : classes) {
+      String name = clazz.getName();
+      ClassState old = previousClasses.get(name);
+      if (toScan.contains(name)) {
+        ClassState state = scanned.next();
+        if (old != null) {
+          old.fieldEdges.forEach(edge -> affectedPairs.add(edge.pair()));
+        }
+        state.fieldEdges.forEach(edge -> affectedPairs.add(edge.pair()));
+        current.put(name, state);
+      } else {
+        current.put(name, old);
+      }
+    }
+
+    List<Edge> affectedEdges = new ArrayList<>();
+    for (ClassState state : current.values()) {
+      for (EdgeRecord edge : state.fieldEdges) {
+        if (affectedPairs.contains(edge.pair())) {
+          affectedEdges.add(edge.toEdge(classesByName, registry));
+        }
+      }
+    }
+    Map<Set<String>, MergedRecords> mergedPairs = new HashMap<>();
+    if (previous != null) {
+      previous.mergedPairs.forEach((pair, merged) -> {
+        if (!affectedPairs.contains(pair)) {
+          mergedPairs.put(pair, merged);
+        }
+      });
+    }
+    for (EdgeOperations.MergedPair pair : EdgeOperations.mergePairs(affectedEdges)) {
+      if (!pair.edges.isEmpty()) {
+        MergedRecords merged = MergedRecords.of(pair);
+        mergedPairs.put(merged.edges.get(0).pair(), merged);
+      }
+    }
+
+    // a full merge lists the pairs in the order their first edges are scanned, part by part
+    Map<Set<String>, MergedRecords> merged = new LinkedHashMap<>();
+    for (ClassState state : current.values()) {
+      for (EdgeRecord edge : state.fieldEdges) {
+        MergedRecords records = mergedPairs.get(edge.pair());
+        if (records != null) {
+          merged.putIfAbsent(edge.pair(), records);
+        }
+      }
+    }
+    List<Edge> edges = new ArrayList<>();
+    for (int part = 0; part < EdgeOperations.MergedPair.PARTS; part++) {
+      for (MergedRecords records : merged.values()) {
+        if (records.part == part) {
+          for (EdgeRecord edge : records.edges) {
+            edges.add(edge.toEdge(classesByName, registry));
+          }
+        }
+      }
+    }
+    for (ClassState state : current.values()) {
+      for (EdgeRecord edge : state.hierarchyEdges) {
+        edges.add(edge.toEdge(classesByName, registry));
+      }
+    }
+
+    writeState(new State(current, merged));
+    rescanned = Collections.unmodifiableSet(toScan);
+    log.debug("Rescanned " + toScan.size() + " of " + classes.size() + " classes");
+    return edges;
+  }
+
+  private ClassState scanClass(Class<?> clazz, String fingerprint) {
+    Set<String> references;
+    ClassSnapshot snapshot = ClassSnapshot.of(clazz);
+    if (snapshot != null) {
+      references = snapshot.getDescriptor().getReferencedClassNames();
+    } else {
+      references = Collections.emptySet();
+      // without its references the class has to be rescanned next time
+      fingerprint = null;
+    }
+    List<EdgeRecord> fieldEdges = fieldScanner.getEdges(clazz).stream()
+        .map(EdgeRecord::of)
+        .collect(Collectors.toList());
+    List<EdgeRecord> hierarchyEdges = hierarchyScanner.getEdges(clazz).stream()
+        .map(EdgeRecord::of)
+        .collect(Collectors.toList());
+    return new ClassState(fingerprint, references, fieldEdges, hierarchyEdges);
+  }
+
+  /**
+   * compute the fingerprint of the class file of a class.
+   * @param clazz the class
+   * @return size and modification time for class files in directories, size and CRC for
+   *     class files in jars, null if the class file cannot be found
+   */
+  static String fingerprint(Class<?> clazz) {
+    // the class file is looked up in the root of the class, no class loader resource lookup
+    Path root = ClassFiles.rootOf(clazz);
+    if (root == null) {
+      return null;
+    }
+    String entryName = clazz.getName().replace('.', '/') + ".class";
+    try {
+      ClassFiles classFiles = ClassFiles.shared();
+      if (!classFiles.isJar(root)) {
+        BasicFileAttributes attributes = Files.readAttributes(root.resolve(entryName),
+            BasicFileAttributes.class);
+        return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+      }
+      JarEntry entry = classFiles.jar(root).getJarEntry(entryName);
+      return entry == null ? null : entry.getSize() + ":" + entry.getCrc();
+    } catch (IOException e) {
+      log.debug("Failed to fingerprint class " + clazz.getName(), e);
+      return null;
+    }
+  }
+
+  private State readState() {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(stateFile), BUFFER_SIZE))) {
+      return State.read(in);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("Discarding unreadable scan state " + stateFile, e);
+      return null;
+    }
+  }
+
+  private void writeState(State state) {
+    Path temp = null;
+    try {
+      Path directory = stateFile.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, stateFile.getFileName().toString(), ".tmp");
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+        state.write(out);
+      }
+      try {
+        Files.move(temp, stateFile, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to write scan state " + stateFile, e);
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // nothing left to do
+        }
+      }
+    }
+  }
+
+  private static String readNullableUtf(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void writeNullableUtf(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static class UnresolvableClassException extends RuntimeException {
+    UnresolvableClassException(String className) {
+      super("class " + className + " of a previous edge cannot be loaded anymore");
+    }
+  }
+
+  private static class State {
+    private final Map<String, ClassState> classes;
+    private final Map<Set<String>, MergedRecords> mergedPairs;
+
+    State(Map<String, ClassState> classes, Map<Set<String>, MergedRecords> mergedPairs) {
+      this.classes = classes;
+      this.mergedPairs = mergedPairs;
+    }
+
+    static State read(DataInputStream in) throws IOException {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("Not a scan state of version " + VERSION);
+      }
+      Map<String, ClassState> classes = new LinkedHashMap<>();
+      for (int i = in.readInt(); i > 0; i--) {
+        String name = in.readUTF();
+        String fingerprint = readNullableUtf(in);
+        Set<String> references = new HashSet<>();
+        for (int j = in.readInt(); j > 0; j--) {
+          references.add(in.readUTF());
+        }
+        classes.put(name, new ClassState(fingerprint, references, EdgeRecord.readAll(in),
+            EdgeRecord.readAll(in)));
+      }
+      Map<Set<String>, MergedRecords> mergedPairs = new LinkedHashMap<>();
+      for (int i = in.readInt(); i > 0; i--) {
+        MergedRecords merged = new MergedRecords(in.readByte(), EdgeRecord.readAll(in));
+        if (!merged.edges.isEmpty()) {
+          mergedPairs.put(merged.edges.get(0).pair(), merged);
+        }
+      }
+      return new State(classes, mergedPairs);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(classes.size());
+      for (Map.Entry<String, ClassState> entry : classes.entrySet()) {
+        ClassState state = entry.getValue();
+        out.writeUTF(entry.getKey());
+        writeNullableUtf(out, state.fingerprint);
+        out.writeInt(state.references.size());
+        for (String reference : state.references) {
+          out.writeUTF(reference);
+        }
+        EdgeRecord.writeAll(out, state.fieldEdges);
+        EdgeRecord.writeAll(out, state.hierarchyEdges);
+      }
+      out.writeInt(mergedPairs.size());
+      for (MergedRecords merged : mergedPairs.values()) {
+        out.writeByte(merged.part);
+        EdgeRecord.writeAll(out, merged.edges);
+      }
+    }
+  }
+
+  /**
+   * The merged edges of a pair of classes, see {@link EdgeOperations.MergedPair}.
+   */
+  private static class MergedRecords {
+    private final int part;
+    private final List<EdgeRecord> edges;
+
+    MergedRecords(int part, List<EdgeRecord> edges) {
+      this.part = part;
+      this.edges = edges;
+    }
+
+    static MergedRecords of(EdgeOperations.MergedPair pair) {
+      return new MergedRecords(pair.part, pair.edges.stream()
+          .map(EdgeRecord::of)
+          .collect(Collectors.toList()));
+    }
+  }
+
+  private static class ClassState {
+    private final String fingerprint;
+    private final Set<String> references;
+    private final List<EdgeRecord> fieldEdges;
+    private final List<EdgeRecord> hierarchyEdges;
+
+    ClassState(String fingerprint, Set<String> references, List<EdgeRecord> fieldEdges,
+               List<EdgeRecord> hierarchyEdges) {
+      this.fingerprint = fingerprint;
+      this.references = references;
+      this.fieldEdges = fieldEdges;
+      this.hierarchyEdges = hierarchyEdges;
+    }
+  }
+
+  /**
+   * An edge with its classes referenced by name.
+   */
+  private static class EdgeRecord {
+    private final String source;
+    private final String sourceDescription;
+    private final String target;
+    private final String targetDescription;
+    private final EdgeType type;
+    private final Direction direction;
+    // the key edges are grouped by when bidirectional edges are merged
+    private final Set<String> pair;
+
+    EdgeRecord(String source, String sourceDescription, String target,
+               String targetDescription, EdgeType type, Direction direction, Set<String> pair) {
+      this.source = source;
+      this.sourceDescription = sourceDescription;
+      this.target = target;
+      this.targetDescription = targetDescription;
+      this.type = type;
+      this.direction = direction;
+      this.pair = pair;
+    }
+
+    static EdgeRecord of(Edge edge) {
+      Set<String> pair = new HashSet<>();
+      pair.add(edge.source.getPackageName() + "." + edge.source.getClassName());
+      pair.add(edge.target.getPackageName() + "." + edge.target.getClassName());
+      return new EdgeRecord(edge.source.getClazz().getName(), edge.sourceDescription,
+          edge.target.getClazz().getName(), edge.targetDescription, edge.type,
+          edge.direction, pair);
+    }
+
+    Set<String> pair() {
+      return pair;
+    }
+
+    Edge toEdge(Map<String, Class<?>> classesByName, DomainClassRegistry registry) {
+      return new Edge(registry.get(resolve(source, classesByName)), sourceDescription,
+          registry.get(resolve(target, classesByName)), targetDescription, type, direction);
+    }
+
+    private static Class<?> resolve(String name, Map<String, Class<?>> classesByName) {
+      Class<?> clazz = classesByName.get(name);
+      if (clazz == null) {
+        // inner class edges may point to classes outside of the domain
+        clazz = ReflectionUtils.forName(name, DomainClassFinder.classLoaders);
+      }
+      if (clazz == null) {
+        throw new UnresolvableClassException(name);
+      }
+      return clazz;
+    }
+
+    static List<EdgeRecord> readAll(DataInputStream in) throws IOException {
+      List<EdgeRecord> edges = new ArrayList<>();
+      for (int i = in.readInt(); i > 0; i--) {
+        String source = in.readUTF();
+        String sourceDescription = readNullableUtf(in);
+        String target = in.readUTF();
+        String targetDescription = readNullableUtf(in);
+        EdgeType type = EdgeType.valueOf(in.readUTF());
+        String direction = readNullableUtf(in);
+        Set<String> pair = new HashSet<>();
+        pair.add(in.readUTF());
+        pair.add(in.readUTF());
+        edges.add(new EdgeRecord(source, sourceDescription, target, targetDescription, type,
+            direction == null ? null : Direction.valueOf(direction), pair));
+      }
+      return edges;
+    }
+
+    static void writeAll(DataOutputStream out, List<EdgeRecord> edges) throws IOException {
+      out.writeInt(edges.size());
+      for (EdgeRecord edge : edges) {
+        out.writeUTF(edge.source);
+        writeNullableUtf(out, edge.sourceDescription);
+        out.writeUTF(edge.target);
+        writeNullableUtf(out, edge.targetDescription);
+        out.writeUTF(edge.type.name());
+        writeNullableUtf(out, Objects.toString(edge.direction, null));
+        List<String> pair = new ArrayList<>(edge.pair);
+        out.writeUTF(pair.get(0));
+        out.writeUTF(pair.size() > 1 ? pair.get(1) : pair.get(0));
+      }
+    }
+  }
+}
@@ -3,9 +3,11 @@ package com.iluwatar.urm;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import com.iluwatar.urm.classpath.ClassDescriptor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import net.sf.qualitytest.CoverageForPrivateConstructor;
 import org.junit.Before;
 import org.junit.Test;
@@ -53,6 +55,26 @@ public class DomainClassFinderTest {
     assertThat(classes.size(), is(1));
   }
 
+  @Test
+  public void bucketsClassesPerPackageInSinglePass() throws Exception {
+    Map<String, List<ClassDescriptor>> buckets = DomainClassFinder.getClassDescriptorsByPackage(
+        Arrays.asList("com.iluwatar.urm.testdomain.person", "com.iluwatar.urm.testdomain.another",
+            "com.iluwatar.urm.testdomain.family.Mo"), new ScanOptions());
+    assertThat(buckets.get("com.iluwatar.urm.testdomain.person").size(), is(4));
+    assertThat(buckets.get("com.iluwatar.urm.testdomain.another").size(), is(1));
+    assertThat(buckets.get("com.iluwatar.urm.testdomain.family.Mo").get(0).getSimpleName(),
+        is("Mother"));
+  }
+
+  @Test
+  public void sameResultOnSingleThread() throws Exception {
+    ScanOptions options = new ScanOptions();
+    options.setThreads(1);
+    List<Class<?>> sequential = DomainClassFinder.findClasses(
+        Arrays.asList("com.iluwatar.urm.testdomain"), new ArrayList<>(), null, options);
+    assertThat(findClasses("com.iluwatar.urm.testdomain"), is(sequential));
+  }
+
   @Test
   public void privateConstructor() {
     CoverageForPrivateConstructor.giveMeCoverage(DomainClassFinder.class);
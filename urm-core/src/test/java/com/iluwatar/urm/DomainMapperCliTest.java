@@ -1,10 +1,14 @@
 package com.iluwatar.urm;
 
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -51,11 +55,44 @@ public class DomainMapperCliTest extends DomainMapperCli { // extends to silence
     assertThat(cli.domainMapper.getClasses().size(), is(3));
   }
 
+  @Test
+  public void withThreads() throws Exception {
+    cli.run(new String[]{"-p", "com.iluwatar.urm.testdomain.person", "-t", "2"});
+    assertThat(cli.domainMapper.getClasses().size(), is(4));
+  }
+
+  @Test
+  public void withInvalidThreads_noError() throws Exception {
+    cli.run(new String[]{"-p", "com.iluwatar.urm.testdomain.person", "-t", "none"});
+  }
+
   @Test
   public void withNoPackages_noError() throws Exception {
     cli.run(new String[]{});
   }
 
+  @Test
+  public void withShardsByPackage() throws Exception {
+    Path index = Paths.get("target", "shards", "domain.md");
+    cli.run(new String[]{"-p", "com.iluwatar.urm.testdomain", "-f", index.toString(),
+        "--shard-by", "package"});
+
+    Path shard = index.resolveSibling("domain.com.iluwatar.urm.testdomain.person.puml");
+    assertThat(Files.exists(shard), is(true));
+    assertThat(new String(Files.readAllBytes(index), StandardCharsets.UTF_8)
+        .contains("[com.iluwatar.urm.testdomain.person](" + shard.getFileName() + ")"), is(true));
+    // the index is written into a temporary file first, which must not remain
+    try (Stream<Path> files = Files.list(index.getParent())) {
+      assertThat(files.noneMatch(file -> file.toString().endsWith(".tmp")), is(true));
+    }
+  }
+
+  @Test
+  public void withShardsButNoFile_noError() throws Exception {
+    cli.run(new String[]{"-p", "com.iluwatar.urm.testdomain", "--shard-by", "component"});
+    assertThat(cli.domainMapper, is(nullValue()));
+  }
+
   @Test
   public void withWriteToFile() throws Exception {
     cli.run(new String[]{"-p", "foo.bar", "-f", "foofile.txt"});
@@ -2,8 +2,10 @@ package com.iluwatar.urm;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import com.iluwatar.urm.domain.ScannedClass;
 import com.iluwatar.urm.presenters.GraphvizPresenter;
 import com.iluwatar.urm.presenters.Presenter;
 import com.iluwatar.urm.testdomain.Selfie;
@@ -16,6 +18,10 @@ import com.iluwatar.urm.testdomain.person.Person;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -154,6 +160,48 @@ public class DomainMapperGraphvizTest {
         Person.class, Manager.class, Employee.class));
   }
 
+  @Test
+  public void testPublishDomain() throws Exception {
+    domainMapper = DomainMapper.create(presenter,
+        Arrays.asList("com.iluwatar.urm.testdomain.person"));
+    List<ScannedClass> published = new ArrayList<>();
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    domainMapper.publishDomain().subscribe(new Flow.Subscriber<ScannedClass>() {
+      private Flow.Subscription subscription;
+
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+      }
+
+      @Override
+      public void onNext(ScannedClass item) {
+        published.add(item);
+        subscription.request(1);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        done.completeExceptionally(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        done.complete(null);
+      }
+    });
+    done.get(10, TimeUnit.SECONDS);
+
+    assertThat(published.stream().map(scanned -> scanned.getDomainClass().getClazz())
+        .collect(Collectors.toList()), is(domainMapper.getClasses()));
+    ScannedClass manager = published.stream()
+        .filter(scanned -> scanned.getDomainClass().getClazz() == Manager.class)
+        .findFirst().get();
+    assertThat(manager.getHierarchyEdges().get(0).target.getClazz().getName(),
+        is(Person.class.getName()));
+  }
+
   private String getRepresentationContent() throws ClassNotFoundException {
     return domainMapper.describeDomain().getContent();
   }
@@ -0,0 +1,62 @@
+package com.iluwatar.urm;
+
+import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.scanners.DomainClassIndex;
+import com.iluwatar.urm.scanners.FieldScanner;
+import com.iluwatar.urm.scanners.HierarchyScanner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The classes of the test domain with their domain classes and edges, as a run maps them.
+ */
+public final class TestDomain {
+
+  public static final String PACKAGE = "com.iluwatar.urm.testdomain";
+
+  private final List<Class<?>> classes;
+  private final DomainClassIndex index;
+  private final List<DomainClass> domainClasses;
+  private final List<Edge> edges;
+
+  private TestDomain(List<Class<?>> classes) {
+    this.classes = classes;
+    this.index = new DomainClassIndex(classes);
+    this.domainClasses = classes.stream()
+        .map(index.getRegistry()::get)
+        .collect(Collectors.toList());
+    this.edges = new ArrayList<>(new FieldScanner(classes, index).getEdges());
+    this.edges.addAll(new HierarchyScanner(classes, index).getEdges());
+  }
+
+  /**
+   * find and scan the test domain. The classes of the test domain are internal, so finding
+   * them is allowed first; call it from {@code @Before} or {@code @BeforeClass}, not from a
+   * field initializer.
+   * @return the scanned test domain
+   */
+  public static TestDomain scan() {
+    DomainClassFinder.ALLOW_FINDING_INTERNAL_CLASSES = true;
+    return new TestDomain(DomainClassFinder.findClasses(Collections.singletonList(PACKAGE),
+        Collections.emptyList(), null));
+  }
+
+  public List<Class<?>> getClasses() {
+    return classes;
+  }
+
+  public DomainClassIndex getIndex() {
+    return index;
+  }
+
+  public List<DomainClass> getDomainClasses() {
+    return domainClasses;
+  }
+
+  public List<Edge> getEdges() {
+    return edges;
+  }
+}
@@ -0,0 +1,97 @@
+package com.iluwatar.urm.classpath;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.testdomain.Task;
+import com.iluwatar.urm.testdomain.weirdos.Outer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassFilesTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void readsClassFilesOfLoadedClasses() throws IOException {
+    try (ClassFiles classFiles = new ClassFiles()) {
+      ClassDescriptor descriptor = classFiles.read(Outer.StaticInner.class,
+          ClassDescriptor::read);
+      assertThat(descriptor.getName(), is(Outer.StaticInner.class.getName()));
+    }
+  }
+
+  @Test
+  public void readsClassFilesInDirectories() throws Exception {
+    Path root = Paths.get(Task.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    try (ClassFiles classFiles = new ClassFiles()) {
+      byte[] read = classFiles.read(root, Task.class.getName(), Arrays::copyOf);
+      assertThat(read, is(bytecode(Task.class)));
+      assertThat(classFiles.read(root, "com.example.Missing", Arrays::copyOf), nullValue());
+    }
+  }
+
+  @Test
+  public void readsClassFilesInJarsIntoReusedBuffers() throws IOException {
+    Path jar = folder.getRoot().toPath().resolve("domain.jar");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+      addClass(out, Task.class);
+      addClass(out, Outer.class);
+    }
+    try (ClassFiles classFiles = new ClassFiles()) {
+      assertThat(classFiles.read(jar, Task.class.getName(), Arrays::copyOf),
+          is(bytecode(Task.class)));
+      assertThat(classFiles.read(jar, Outer.class.getName(), Arrays::copyOf),
+          is(bytecode(Outer.class)));
+      assertThat(classFiles.read(jar, "com.example.Missing", Arrays::copyOf), nullValue());
+      assertThat(classFiles.jar(jar), is(classFiles.jar(jar)));
+    }
+  }
+
+  @Test
+  public void sharedJarsStayOpenUntilTheLastUserIsDone() throws IOException {
+    Path jar = folder.getRoot().toPath().resolve("shared.jar");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+      addClass(out, Task.class);
+    }
+    Closeable first = ClassFiles.useShared();
+    final Closeable second = ClassFiles.useShared();
+    JarFile opened = ClassFiles.shared().jar(jar);
+    first.close();
+    first.close();
+    assertThat(ClassFiles.shared().jar(jar), is(sameInstance(opened)));
+    assertThat(ClassFiles.shared().read(jar, Task.class.getName(), Arrays::copyOf),
+        is(bytecode(Task.class)));
+    second.close();
+    assertThat(ClassFiles.shared().jar(jar), is(not(sameInstance(opened))));
+    ClassFiles.useShared().close();
+  }
+
+  private static void addClass(ZipOutputStream out, Class<?> clazz) throws IOException {
+    out.putNextEntry(new ZipEntry(clazz.getName().replace('.', '/') + ".class"));
+    out.write(bytecode(clazz));
+    out.closeEntry();
+  }
+
+  private static byte[] bytecode(Class<?> clazz) throws IOException {
+    String resource = clazz.getName().replace('.', '/') + ".class";
+    try (InputStream is = clazz.getClassLoader().getResourceAsStream(resource)) {
+      return is.readAllBytes();
+    }
+  }
+}
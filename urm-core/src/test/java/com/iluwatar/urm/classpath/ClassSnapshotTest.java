@@ -0,0 +1,52 @@
+package com.iluwatar.urm.classpath;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.testdomain.person.Employee;
+import com.iluwatar.urm.testdomain.person.Person;
+import com.iluwatar.urm.testdomain.weirdos.Outer;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ClassSnapshotTest {
+
+  @Test
+  public void readsHeaderFieldsAndParameterNamesInOnePass() {
+    ClassSnapshot snapshot = ClassSnapshot.of(Employee.class);
+    assertThat(snapshot.getDescriptor().getSuperName(), is(Person.class.getName()));
+    assertThat(snapshot.getDescriptor().getFields().stream()
+        .map(FieldDescriptor::getName)
+        .collect(Collectors.toList()), contains("name", "department"));
+    assertThat(snapshot.getMethod("<init>", "(Ljava/lang/String;Ljava/lang/String;)V")
+        .getParameterNames(), contains("name", "department"));
+    assertThat(snapshot.getMethod("getName", "()Ljava/lang/String;").getParameterNames()
+        .isEmpty(), is(true));
+    assertThat(snapshot.getMethod("getName", "(I)V"), nullValue());
+  }
+
+  @Test
+  public void includesOuterInstanceInParameterNamesOfInnerClassConstructors() {
+    ClassSnapshot snapshot = ClassSnapshot.of(Outer.Inner.class);
+    String descriptor = "(L" + Outer.class.getName().replace('.', '/') + ";)V";
+    assertThat(snapshot.getMethod("<init>", descriptor).getParameterNames().size(), is(1));
+  }
+
+  @Test
+  public void readsInnerClassRecords() {
+    ClassSnapshot snapshot = ClassSnapshot.of(Outer.StaticInner.class);
+    assertThat(snapshot.getDescriptor().getSimpleName(), is("StaticInner"));
+    assertThat(snapshot.getInnerClasses().stream()
+        .map(InnerClassDescriptor::getName)
+        .collect(Collectors.toList()), hasItem(Outer.StaticInner.class.getName()));
+  }
+
+  @Test
+  public void readsEachClassOnce() {
+    assertThat(ClassSnapshot.of(Employee.class), sameInstance(ClassSnapshot.of(Employee.class)));
+  }
+}
@@ -0,0 +1,68 @@
+package com.iluwatar.urm.classpath;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.testdomain.weirdos.Outer;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.reflections.util.ClasspathHelper;
+
+public class ClasspathScannerTest {
+
+  private static boolean initialized;
+
+  @Test
+  public void readsHeadersOfMatchingClasses() {
+    List<ClassDescriptor> descriptors = scan(Outer.class.getName());
+    List<String> simpleNames = descriptors.stream()
+        .map(ClassDescriptor::getSimpleName)
+        .collect(Collectors.toList());
+    assertThat(simpleNames, containsInAnyOrder("Outer", "Inner", "StaticInner",
+        "InnerReferencingOuter", "InnerReferencingMultipleOuter", "OuterReferencingInner",
+        "OuterReferencingMultipleInner"));
+  }
+
+  @Test
+  public void detectsAnonymousClasses() {
+    List<ClassDescriptor> descriptors = scan(
+        "com.iluwatar.urm.testdomain.withanonymousclass");
+    assertThat(descriptors.size(), is(2));
+    assertThat(descriptors.stream().filter(ClassDescriptor::isAnonymous).count(), is(1L));
+  }
+
+  @Test
+  public void neverInitializesScannedClasses() {
+    List<ClassDescriptor> descriptors = scan(Initializing.class.getName());
+    assertThat(descriptors.size(), is(1));
+    assertThat(descriptors.get(0).getSuperName(), is(Object.class.getName()));
+    assertThat(descriptors.get(0).load().getName(), is(Initializing.class.getName()));
+    assertThat(initialized, is(false));
+  }
+
+  @Test
+  public void ignoresNonClassResources() {
+    assertThat(ClasspathScanner.toClassName("META-INF/versions/9/module-info.class"),
+        nullValue());
+    assertThat(ClasspathScanner.toClassName("module-info.class"), nullValue());
+    assertThat(ClasspathScanner.toClassName("logback.xml"), nullValue());
+    assertThat(ClasspathScanner.toClassName("com/example/Outer$Inner.class"),
+        is("com.example.Outer$Inner"));
+  }
+
+  private static List<ClassDescriptor> scan(String prefix) {
+    return new ClasspathScanner().scan(
+        Collections.singletonList(ClasspathHelper.forClass(ClasspathScannerTest.class)),
+        name -> name.startsWith(prefix));
+  }
+
+  private static class Initializing {
+    static {
+      initialized = true;
+    }
+  }
+}
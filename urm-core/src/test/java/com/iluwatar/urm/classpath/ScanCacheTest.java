@@ -0,0 +1,125 @@
+package com.iluwatar.urm.classpath;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.testdomain.Task;
+import com.iluwatar.urm.testdomain.weirdos.Outer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ScanCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path jar;
+  private Path cacheDirectory;
+
+  /**
+   * setup method for the test.
+   * @throws IOException exception
+   */
+  @Before
+  public void setup() throws IOException {
+    jar = folder.getRoot().toPath().resolve("domain.jar");
+    cacheDirectory = folder.getRoot().toPath().resolve("cache");
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+      addClass(out, Task.class);
+      addClass(out, Outer.class);
+      addClass(out, Outer.StaticInner.class);
+    }
+  }
+
+  @Test
+  public void warmScanReadsIndexOfWholeJar() throws IOException {
+    ScanCache cache = new ScanCache(cacheDirectory, Long.MAX_VALUE);
+    List<ClassDescriptor> cold = scan(cache, Outer.class.getName());
+    assertThat(names(cold), containsInAnyOrder(Outer.class.getName(),
+        Outer.StaticInner.class.getName()));
+
+    List<ClassDescriptor> index = cache.get(cache.key(jar));
+    assertThat(names(index), containsInAnyOrder(Task.class.getName(), Outer.class.getName(),
+        Outer.StaticInner.class.getName()));
+    ClassDescriptor task = index.stream()
+        .filter(descriptor -> descriptor.getSimpleName().equals("Task"))
+        .findFirst().get();
+    assertThat(task.getFields().stream()
+            .filter(field -> field.getName().equals("assignedEmployees"))
+            .findFirst().get().getSignature(),
+        is("Ljava/util/List<Lcom/iluwatar/urm/testdomain/person/Employee;>;"));
+
+    List<ClassDescriptor> warm = scan(cache, Task.class.getName());
+    assertThat(names(warm), containsInAnyOrder(Task.class.getName()));
+  }
+
+  @Test
+  public void evictsEntriesBeyondSizeLimit() throws IOException {
+    ScanCache cache = new ScanCache(cacheDirectory, 0);
+    scan(cache, Outer.class.getName());
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      assertThat(files.count(), is(0L));
+    }
+  }
+
+  @Test
+  public void discardsCorruptEntries() throws IOException {
+    ScanCache cache = new ScanCache(cacheDirectory, Long.MAX_VALUE);
+    scan(cache, Outer.class.getName());
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      Files.write(files.filter(file -> file.toString().endsWith(".idx")).findFirst().get(),
+          new byte[] {1, 2, 3});
+    }
+    assertThat(cache.get(cache.key(jar)), nullValue());
+  }
+
+  @Test
+  public void unchangedJarIsNotHashedAgain() throws IOException {
+    ScanCache cache = new ScanCache(cacheDirectory, Long.MAX_VALUE);
+    final String key = cache.key(jar);
+    FileTime lastModified = Files.getLastModifiedTime(jar);
+    byte[] content = Files.readAllBytes(jar);
+    content[content.length - 1]++;
+    Files.write(jar, content);
+    Files.setLastModifiedTime(jar, lastModified);
+    // same size and modification time, the stored key is trusted
+    assertThat(cache.key(jar), is(key));
+
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(lastModified.toMillis() + 1000));
+    assertThat(cache.key(jar), is(not(key)));
+  }
+
+  private List<ClassDescriptor> scan(ScanCache cache, String prefix) throws IOException {
+    return new ClasspathScanner(2, cache).scan(
+        Collections.singletonList(jar.toUri().toURL()), name -> name.startsWith(prefix));
+  }
+
+  private static List<String> names(List<ClassDescriptor> descriptors) {
+    return descriptors.stream().map(ClassDescriptor::getName).collect(Collectors.toList());
+  }
+
+  private static void addClass(ZipOutputStream out, Class<?> clazz) throws IOException {
+    String resource = clazz.getName().replace('.', '/') + ".class";
+    out.putNextEntry(new ZipEntry(resource));
+    try (InputStream is = clazz.getClassLoader().getResourceAsStream(resource)) {
+      is.transferTo(out);
+    }
+    out.closeEntry();
+  }
+}
@@ -0,0 +1,66 @@
+package com.iluwatar.urm.concurrent;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.core.Is.is;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.sf.qualitytest.CoverageForPrivateConstructor;
+import org.junit.Test;
+
+public class WorkerPoolTest {
+
+  private final List<Integer> numbers = IntStream.range(0, 1000).boxed()
+      .collect(Collectors.toList());
+
+  @Test
+  public void keepsOrderOfItems() {
+    List<Integer> squares = numbers.stream().map(i -> i * i).collect(Collectors.toList());
+    assertThat(WorkerPool.map(numbers, i -> i * i, 8), is(squares));
+    assertThat(WorkerPool.map(numbers, i -> i * i, 1), is(squares));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rethrowsFailuresOfWorkers() {
+    WorkerPool.map(numbers, i -> {
+      throw new IllegalStateException("failed on " + i);
+    }, 4);
+  }
+
+  @Test
+  public void handsOutResultsInOrderOfItems() {
+    List<Integer> squares = numbers.stream().map(i -> i * i).collect(Collectors.toList());
+    List<Integer> received = new ArrayList<>();
+    WorkerPool.forEachInOrder(numbers, i -> i * i, 8, received::add);
+    assertThat(received, is(squares));
+  }
+
+  @Test(expected = IOException.class)
+  public void stopsWhenTheConsumerFails() throws IOException {
+    WorkerPool.forEachInOrder(numbers, i -> i * i, 4, square -> {
+      throw new IOException("failed on " + square);
+    });
+  }
+
+  @Test
+  public void runsNestedWorkOnTheThreadOfTheOuterPool() {
+    List<Boolean> nestedOnSameThread = WorkerPool.map(numbers.subList(0, 8), i -> {
+      Thread worker = Thread.currentThread();
+      List<Boolean> sameThread = new ArrayList<>();
+      WorkerPool.forEachInOrder(numbers, j -> Thread.currentThread() == worker, 4,
+          sameThread::add);
+      return WorkerPool.map(numbers, j -> Thread.currentThread() == worker, 4).stream()
+          .allMatch(same -> same) && sameThread.stream().allMatch(same -> same);
+    }, 4);
+    assertThat(nestedOnSameThread, everyItem(is(true)));
+  }
+
+  @Test
+  public void privateConstructor() {
+    CoverageForPrivateConstructor.giveMeCoverage(WorkerPool.class);
+  }
+}
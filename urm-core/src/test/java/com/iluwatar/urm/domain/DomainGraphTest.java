@@ -0,0 +1,89 @@
+package com.iluwatar.urm.domain;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.TestDomain;
+import com.iluwatar.urm.presenters.PlantUmlPresenter;
+import com.iluwatar.urm.presenters.Presenter;
+import com.iluwatar.urm.scanners.DomainClassIndex;
+import com.iluwatar.urm.testdomain.family.Child;
+import com.iluwatar.urm.testdomain.family.Mother;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DomainGraphTest {
+
+  private DomainClassIndex index;
+  private List<DomainClass> domainClasses;
+  private List<Edge> edges;
+
+  /**
+   * scan the test domain.
+   */
+  @Before
+  public void setup() {
+    TestDomain domain = TestDomain.scan();
+    index = domain.getIndex();
+    domainClasses = domain.getDomainClasses();
+    edges = domain.getEdges();
+  }
+
+  @Test
+  public void adaptersReturnTheModel() {
+    DomainGraph graph = DomainGraph.of(domainClasses, edges);
+    assertThat(graph.getEdgeCount(), is(edges.size()));
+    assertThat(graph.toClasses(), is(domainClasses));
+    assertThat(graph.toEdges(), is(edges));
+  }
+
+  @Test
+  public void symbolsIdentifyClassesAndPackages() {
+    SymbolTable symbols = DomainGraph.of(domainClasses, edges).getSymbols();
+    assertThat(symbols.getDomainClassCount(), is(domainClasses.size()));
+    int mother = symbols.getClassId(Mother.class.getName());
+    assertThat(symbols.getDomainClass(mother), is(sameInstance(domainClasses.get(mother))));
+    assertThat(symbols.getClassId(domainClasses.get(mother)), is(mother));
+    assertThat(symbols.getPackageName(symbols.getPackageId(mother)),
+        is(Mother.class.getPackage().getName()));
+    assertThat(symbols.getClassId("com.example.Missing"), is(-1));
+  }
+
+  @Test
+  public void adjacencyListsTheEdgesOfAClass() {
+    DomainGraph graph = DomainGraph.of(domainClasses, edges);
+    SymbolTable symbols = graph.getSymbols();
+    int mother = symbols.getClassId(Mother.class.getName());
+    int child = symbols.getClassId(Child.class.getName());
+    List<String> motherEdges = new ArrayList<>();
+    for (EdgeType type : EdgeType.values()) {
+      DomainGraph.Adjacency adjacency = graph.getAdjacency(type);
+      for (int edge = adjacency.start(mother); edge < adjacency.end(mother); edge++) {
+        if (adjacency.getTarget(edge) == child) {
+          motherEdges.add(type + " " + adjacency.getSourceDescription(edge) + " "
+              + adjacency.getTargetDescription(edge) + " " + adjacency.isBiDirectional(edge));
+        }
+      }
+    }
+    assertThat(motherEdges, containsInAnyOrder("ONE_TO_MANY childs mommy true",
+        "ONE_TO_ONE favorite mommy true"));
+  }
+
+  @Test
+  public void presentersDescribeTheGraph() {
+    Presenter presenter = new PlantUmlPresenter();
+    List<String> expected = lines(presenter.describe(domainClasses, edges).getContent());
+    List<String> described = lines(
+        presenter.describe(DomainGraph.of(domainClasses, edges)).getContent());
+    assertThat(described, is(expected));
+  }
+
+  private static List<String> lines(String content) {
+    return Arrays.asList(content.split("\n"));
+  }
+}
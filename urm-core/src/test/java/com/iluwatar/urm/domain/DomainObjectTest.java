@@ -2,9 +2,16 @@ package com.iluwatar.urm.domain;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 
+import com.iluwatar.urm.testdomain.Task;
+import com.iluwatar.urm.testdomain.Timesheet;
+import com.iluwatar.urm.testdomain.person.Manager;
 import com.iluwatar.urm.testdomain.weirdos.Colors;
+import com.iluwatar.urm.testdomain.weirdos.Outer;
+import java.lang.reflect.Executable;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.hamcrest.Description;
@@ -43,6 +50,90 @@ public class DomainObjectTest {
         "A_LOT_DARKER_RED", "SO_RED_YOU_CANT_EVEN_IMAGINE"));
   }
 
+  @Test
+  public void membersFromBytecodeEqualReflectedOnes() {
+    for (Class<?> clazz : new Class<?>[] {Task.class, Timesheet.class, Manager.class,
+        Colors.class, Outer.class, Outer.InnerReferencingOuter.class, Outer.StaticInner.class,
+        localClassInStaticMethod(), localClassInInstanceMethod()}) {
+      DomainClass reflected = new DomainClass(clazz);
+      DomainClass fromBytecode = new DomainClass(clazz, true);
+      assertThat(umlNames(fromBytecode.getFields()), is(umlNames(reflected.getFields())));
+      assertThat(umlNames(fromBytecode.getConstructors()),
+          is(umlNames(reflected.getConstructors())));
+      assertThat(umlNames(fromBytecode.getMethods()), is(umlNames(reflected.getMethods())));
+      assertThat(executables(fromBytecode.getConstructors()),
+          is(executables(reflected.getConstructors())));
+      assertThat(executables(fromBytecode.getMethods()),
+          is(executables(reflected.getMethods())));
+    }
+  }
+
+  @Test
+  public void onlyLocalClassesInInstanceContextsTakeAnOuterInstance() {
+    assertThat(new DomainClass(localClassInStaticMethod()).getConstructors().get(0)
+        .getUmlName(), is("Local(name : String)"));
+    assertThat(new DomainClass(localClassInInstanceMethod()).getConstructors().get(0)
+        .getUmlName(), is("Local(name : String)"));
+  }
+
+  private static Class<?> localClassInStaticMethod() {
+    class Local {
+      private final String name;
+
+      Local(String name) {
+        this.name = name;
+      }
+    }
+
+    return Local.class;
+  }
+
+  private Class<?> localClassInInstanceMethod() {
+    class Local {
+      private final String name;
+
+      Local(String name) {
+        this.name = name;
+      }
+    }
+
+    return Local.class;
+  }
+
+  @Test
+  public void equalityIsDefinedByClass() {
+    DomainClass colors = new DomainClass(Colors.class);
+    DomainClass sameColors = new DomainClass(Colors.class);
+    sameColors.getFields();
+    assertThat(colors, is(sameColors));
+    assertThat(colors.hashCode(), is(sameColors.hashCode()));
+    assertThat(colors, is(not(new DomainClass(DomainObjectTest.class))));
+  }
+
+  @Test
+  public void registryHandsOutOneInstancePerClass() {
+    DomainClassRegistry registry = new DomainClassRegistry();
+    DomainClass colors = registry.get(Colors.class);
+    assertThat(registry.get(Colors.class), is(sameInstance(colors)));
+    assertThat(registry.get(DomainObjectTest.class), is(not(sameInstance(colors))));
+    assertThat(registry.size(), is(2));
+  }
+
+  private static List<Executable> executables(List<? extends DomainExecutable<?>> members) {
+    return members.stream()
+        .map(DomainExecutable::getExecutable)
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> umlNames(List<?> members) {
+    return members.stream()
+        .map(member -> member instanceof DomainField
+            ? ((DomainField) member).getUmlName() + ((DomainField) member).getVisibility()
+            : member.toString() + ((DomainExecutable<?>) member).getVisibility()
+                + ((DomainExecutable<?>) member).isStatic())
+        .collect(Collectors.toList());
+  }
+
   private static class DomainObjectAssertion extends TypeSafeMatcher<DomainClass> {
     private String expectedPackageName;
     private String expectedClassName;
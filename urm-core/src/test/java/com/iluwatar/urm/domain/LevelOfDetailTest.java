@@ -0,0 +1,70 @@
+package com.iluwatar.urm.domain;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.TestDomain;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LevelOfDetailTest {
+
+  private static final String TEST_DOMAIN = TestDomain.PACKAGE;
+
+  private List<DomainClass> domainClasses;
+  private List<Edge> edges;
+
+  /**
+   * scan the test domain.
+   */
+  @Before
+  public void setup() {
+    TestDomain domain = TestDomain.scan();
+    domainClasses = domain.getDomainClasses();
+    edges = domain.getEdges();
+  }
+
+  @Test
+  public void modelWithinTheBudgetIsKept() {
+    LevelOfDetail detail = LevelOfDetail.fit(domainClasses, edges, domainClasses.size(), 3);
+    assertThat(detail.isCollapsed(), is(false));
+    assertThat(detail.getDomainClasses(), is(sameInstance(domainClasses)));
+    assertThat(detail.getEdges(), is(sameInstance(edges)));
+    assertThat(detail.getMaxMembers(), is(3));
+  }
+
+  @Test
+  public void packagesAreCollapsedAtTheDeepestLevelThatFits() {
+    List<String> packageNames = domainClasses.stream().map(DomainClass::getPackageName)
+        .distinct().sorted().collect(Collectors.toList());
+    LevelOfDetail detail = LevelOfDetail.fit(domainClasses, edges, packageNames.size(),
+        LevelOfDetail.UNLIMITED);
+
+    assertThat(detail.isCollapsed(), is(true));
+    assertThat(detail.getPackages().stream().map(LevelOfDetail.PackageSummary::getName)
+        .collect(Collectors.toList()), is(packageNames));
+    assertThat(detail.getPackages().stream()
+        .mapToInt(LevelOfDetail.PackageSummary::getClassCount).sum(), is(domainClasses.size()));
+    String person = TEST_DOMAIN + ".person";
+    long personToDomain = edges.stream()
+        .filter(edge -> edge.source.getPackageName().equals(person)
+            && edge.target.getPackageName().equals(TEST_DOMAIN))
+        .count();
+    LevelOfDetail.PackageEdge packageEdge = detail.getPackageEdges().stream()
+        .filter(edge -> edge.getSource().equals(person) && edge.getTarget().equals(TEST_DOMAIN))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+    assertThat((long) packageEdge.getWeight(), is(personToDomain));
+  }
+
+  @Test
+  public void shallowerLevelIsChosenIfTheDeepestDoesNotFit() {
+    LevelOfDetail detail = LevelOfDetail.fit(domainClasses, edges, 2, LevelOfDetail.UNLIMITED);
+    assertThat(detail.getPackages().size(), is(1));
+    assertThat(detail.getPackages().get(0).getName(), is(TEST_DOMAIN));
+    assertThat(detail.getPackageEdges().isEmpty(), is(true));
+  }
+}
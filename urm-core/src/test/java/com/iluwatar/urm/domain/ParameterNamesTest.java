@@ -0,0 +1,39 @@
+package com.iluwatar.urm.domain;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.emptyArray;
+
+import com.iluwatar.urm.testdomain.person.Manager;
+import org.junit.Test;
+
+public class ParameterNamesTest {
+
+  @Test
+  public void namesAreReadFromTheLocalVariableTable() throws Exception {
+    assertThat(ParameterNames.of(Manager.class.getConstructor(String.class)),
+        arrayContaining("name"));
+    assertThat(ParameterNames.of(Manager.class.getMethod("getName")), emptyArray());
+  }
+
+  @Test
+  public void namesOfAllExecutablesOfAClassAreResolved() throws Exception {
+    assertThat(ParameterNames.of(Counter.class.getDeclaredConstructor(int.class)),
+        arrayContaining("start"));
+    assertThat(ParameterNames.of(Counter.class.getDeclaredMethod("add", int.class, String.class)),
+        arrayContaining("count", "label"));
+  }
+
+  private static class Counter {
+    private int value;
+
+    Counter(int start) {
+      value = start;
+    }
+
+    int add(int count, String label) {
+      value += count;
+      return label.length() + value;
+    }
+  }
+}
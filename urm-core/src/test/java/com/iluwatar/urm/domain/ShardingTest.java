@@ -0,0 +1,94 @@
+package com.iluwatar.urm.domain;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.TestDomain;
+import com.iluwatar.urm.scanners.DomainClassIndex;
+import com.iluwatar.urm.testdomain.Company;
+import com.iluwatar.urm.testdomain.family.Child;
+import com.iluwatar.urm.testdomain.family.Mother;
+import com.iluwatar.urm.testdomain.person.Person;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShardingTest {
+
+  private DomainClassIndex index;
+  private List<DomainClass> domainClasses;
+  private List<Edge> edges;
+
+  /**
+   * scan the test domain.
+   */
+  @Before
+  public void setup() {
+    TestDomain domain = TestDomain.scan();
+    index = domain.getIndex();
+    domainClasses = domain.getDomainClasses();
+    edges = domain.getEdges();
+  }
+
+  @Test
+  public void packagesAreShardsOfTheirOwn() {
+    List<Shard> shards = Sharding.PACKAGE.split(domainClasses, edges);
+    assertThat(shards.stream().map(Shard::getName).collect(Collectors.toList()),
+        is(domainClasses.stream().map(DomainClass::getPackageName).distinct().sorted()
+            .collect(Collectors.toList())));
+    assertThat(shards.stream().mapToInt(shard -> shard.getDomainClasses().size()).sum(),
+        is(domainClasses.size()));
+
+    DomainClass person = index.getRegistry().get(Person.class);
+    DomainClass company = index.getRegistry().get(Company.class);
+    Shard persons = shardOf(shards, person);
+    Shard companies = shardOf(shards, company);
+    assertThat(persons.getStubs(), hasItem(company));
+    assertThat(companies.getStubs(), hasItem(person));
+    List<Edge> crossing = persons.getEdges().stream()
+        .filter(edge -> edge.source.equals(company) || edge.target.equals(company))
+        .collect(Collectors.toList());
+    assertThat(crossing, is(not(empty())));
+    assertThat(companies.getEdges().containsAll(crossing), is(true));
+  }
+
+  @Test
+  public void connectedClassesShareAComponent() {
+    List<Shard> shards = Sharding.COMPONENT.split(domainClasses, edges);
+    Shard family = shardOf(shards, index.getRegistry().get(Mother.class));
+    assertThat(family.getDomainClasses(), hasItem(index.getRegistry().get(Child.class)));
+    assertThat(family.getDomainClasses(), not(hasItem(index.getRegistry().get(Person.class))));
+    assertThat(shardOf(shards, index.getRegistry().get(Person.class)).getDomainClasses(),
+        hasItem(index.getRegistry().get(Company.class)));
+    List<Edge> sharded = new ArrayList<>();
+    for (Shard shard : shards) {
+      assertThat(shard.getStubs(), is(empty()));
+      sharded.addAll(shard.getEdges());
+    }
+    assertThat(sharded, containsInAnyOrder(edges.toArray(new Edge[0])));
+  }
+
+  @Test
+  public void shardingIsParsedIgnoringCase() {
+    assertThat(Sharding.parse("Package"), is(Sharding.PACKAGE));
+    assertThat(Sharding.parse(" component"), is(Sharding.COMPONENT));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownShardingIsRejected() {
+    Sharding.parse("module");
+  }
+
+  private static Shard shardOf(List<Shard> shards, DomainClass domainClass) {
+    return shards.stream()
+        .filter(shard -> shard.getDomainClasses().contains(domainClass))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+  }
+}
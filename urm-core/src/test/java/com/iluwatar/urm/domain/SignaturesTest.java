@@ -0,0 +1,64 @@
+package com.iluwatar.urm.domain;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.classpath.ClassSnapshot;
+import com.iluwatar.urm.classpath.FieldDescriptor;
+import com.iluwatar.urm.testdomain.weirdos.GenericMadness;
+import org.junit.Test;
+
+public class SignaturesTest {
+
+  @Test
+  public void typesAreRenderedFromDescriptors() {
+    assertThat(Signatures.type("I"), is("int"));
+    assertThat(Signatures.type("[[J"), is("long[][]"));
+    assertThat(Signatures.type("Ljava/lang/String;"), is("String"));
+    assertThat(Signatures.type("Lcom/example/Outer$Nested;"), is("Nested"));
+  }
+
+  @Test
+  public void typesAreRenderedFromSignatures() {
+    assertThat(Signatures.type("Ljava/util/Map<TK;Ljava/util/List<[TV;>;>;"),
+        is("Map<K, List<V[]>>"));
+    assertThat(Signatures.type("[Ljava/util/List<*>;"), is("List<?>[]"));
+    assertThat(Signatures.type("Lcom/example/Outer$Nested<-Ljava/lang/Number;>;"),
+        is("Outer.Nested<? super Number>"));
+    assertThat(Signatures.type("Lcom/example/Outer<TT;>.Inner<+TU;>;"),
+        is("Outer<T>.Inner<? extends U>"));
+  }
+
+  @Test
+  public void typesMatchReflection() throws Exception {
+    FieldDescriptor field = ClassSnapshot.of(GenericMadness.class).getDescriptor().getFields()
+        .get(0);
+    assertThat(Signatures.type(field.getSignature()), is(TypeUtils.getSimpleName(
+        GenericMadness.class.getDeclaredField(field.getName()).getGenericType())));
+  }
+
+  @Test
+  public void methodSignaturesAreRendered() {
+    String signature = "<T:Ljava/lang/Object;>(TT;[Ljava/lang/String;)Ljava/util/List<TT;>;";
+    Signatures.MethodSignature method = Signatures.method(signature);
+    assertThat(method.parameterTypes, contains("T", "String[]"));
+    assertThat(method.returnType, is("List<T>"));
+    assertThat(Signatures.method("()V").returnType, is("void"));
+  }
+
+  @Test
+  public void signaturesAreCachedPerRun() {
+    String signature = "<T:Ljava/lang/Object;>(TT;[Ljava/lang/String;)Ljava/util/List<TT;>;";
+    TypeNames names = new TypeNames(1);
+    Signatures.MethodSignature method = names.method(signature);
+    assertThat(names.method(signature), is(sameInstance(method)));
+    assertThat(names.method("()V").returnType, is("void"));
+    assertThat(names.method(signature), is(not(sameInstance(method))));
+    assertThat(names.type("Ljava/util/List<TT;>;"), is("List<T>"));
+    assertThat(TypeNames.UNCACHED.method(signature), is(not(sameInstance(
+        TypeNames.UNCACHED.method(signature)))));
+  }
+}
@@ -2,12 +2,14 @@ package com.iluwatar.urm.domain;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.core.Is.is;
 
 import com.iluwatar.urm.testdomain.observ.Observable;
 import com.iluwatar.urm.testdomain.observ.Observer;
 import com.iluwatar.urm.testdomain.weirdos.GenericMadness;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.LinkedList;
 import java.util.List;
 import org.junit.Test;
@@ -41,6 +43,43 @@ public class TypeUtilsTest {
     test(Observer.class, observerMembers);
   }
 
+  @Test
+  public void cutPackagesStripsQualifiersLikeTheRegex() {
+    String[] names = {"java.util.Map<java.util.List<java.lang.String>, int[]>",
+        "java.util.Map$Entry<? extends a.b.C, ? super d1.e_f.$G>", "Outer.Inner",
+        "x.1y.z", "1.2", "a..b", "pkg.Outer$1.Inner", "int", ".x", "x."};
+    for (String name : names) {
+      String expected = name.replaceAll("([a-zA-Z_$][a-zA-Z\\d_$]*)\\.", "");
+      assertThat(TypeUtils.cutPackages(name), is(expected));
+    }
+  }
+
+  @Test
+  public void repeatedTypesRenderTheSameName() throws Exception {
+    Field field = GenericMadness.class.getDeclaredFields()[0];
+    String name = TypeUtils.getSimpleName(field.getGenericType());
+    assertThat(TypeUtils.getSimpleName(field.getGenericType()), is(name));
+    assertThat(TypeUtils.getSimpleName(GenericMadness.class),
+        is(TypeUtils.getSimpleTypeName(GenericMadness.class)));
+  }
+
+  @Test
+  public void typeNamesOfARunKeepTheRecentlyUsedOnly() throws Exception {
+    Type fieldType = GenericMadness.class.getDeclaredField("collectionsCollection")
+        .getGenericType();
+    Type returnType = GenericMadness.class.getDeclaredMethod("allWildCardReturns",
+        Object.class).getGenericReturnType();
+    TypeNames names = new TypeNames(1);
+    String first = names.getSimpleName(fieldType);
+    assertThat(first, is(TypeUtils.getSimpleName(fieldType)));
+    assertThat(names.getSimpleName(returnType), is(TypeUtils.getSimpleName(returnType)));
+    assertThat(names.size(), is(1));
+    assertThat(names.getSimpleName(fieldType), is(first));
+    assertThat(names.getSimpleName(GenericMadness.class),
+        is(TypeUtils.getSimpleName(GenericMadness.class)));
+    assertThat(names.size(), is(1));
+  }
+
   /**
    * test method.
    * @param clazz type of class
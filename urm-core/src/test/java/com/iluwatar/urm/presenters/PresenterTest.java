@@ -1,13 +1,47 @@
 package com.iluwatar.urm.presenters;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertTrue;
 
+import com.iluwatar.urm.TestDomain;
+import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.DomainMembers;
+import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.domain.LevelOfDetail;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.Before;
 import org.junit.Test;
 
 
 
 public class PresenterTest {
 
+  private List<DomainClass> domainClasses;
+  private List<Edge> edges;
+
+  /**
+   * scan the test domain.
+   */
+  @Before
+  public void setup() {
+    TestDomain domain = TestDomain.scan();
+    domainClasses = domain.getDomainClasses();
+    edges = domain.getEdges();
+  }
+
   @Test
   public void parseShouldReturnCorrectPresenter() {
     Presenter presenter = Presenter.parse("graphviz");
@@ -17,4 +51,144 @@ public class PresenterTest {
     presenter = Presenter.parse("mermaid");
     assertTrue(presenter.getClass().getSimpleName().equals("MermaidPresenter"));
   }
+
+  @Test
+  public void parseSharesOneInstancePerPresenter() {
+    assertThat(Presenter.parse("graphviz", 2), is(sameInstance(Presenter.parse("GraphViz", 2))));
+    assertThat(Presenter.parse(null, 2), is(sameInstance(Presenter.parse("plantuml", 2))));
+  }
+
+  @Test
+  public void sharedPresenterDescribesConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (String name : new String[] {"plantuml", "graphviz", "mermaid"}) {
+        Presenter presenter = Presenter.parse(name, 2);
+        String expected = presenter.describe(domainClasses, edges).getContent();
+        List<Future<String>> described = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          // every caller has its own copy of the model, sharing only the presenter
+          List<DomainClass> ownClasses = new ArrayList<>(domainClasses);
+          List<Edge> ownEdges = new ArrayList<>(edges);
+          described.add(executor.submit(
+              () -> presenter.describe(ownClasses, ownEdges).getContent()));
+        }
+        for (Future<String> content : described) {
+          assertThat(content.get(), is(expected));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void levelOfDetailLimitsTheDiagram() {
+    LevelOfDetail elided = LevelOfDetail.fit(domainClasses, edges, domainClasses.size(), 1);
+    LevelOfDetail collapsed = LevelOfDetail.fit(domainClasses, edges, 1, 1);
+
+    String plantUml = Presenter.parse("plantuml").describe(elided).getContent();
+    assertThat(plantUml, containsString(" more .."));
+    assertThat(Presenter.parse("plantuml").describe(collapsed).getContent(),
+        containsString("package \"com.iluwatar.urm.testdomain\" as pkg_com_iluwatar_urm_testdomain"
+            + " <<" + domainClasses.size() + " classes>>"));
+    assertThat(Presenter.parse("graphviz").describe(elided).getContent(),
+        containsString(" more\\l"));
+    assertThat(Presenter.parse("graphviz").describe(collapsed).getContent(),
+        containsString("\"com.iluwatar.urm.testdomain\" [ label = \"{com.iluwatar.urm.testdomain | "
+            + domainClasses.size() + " classes}\" ];"));
+    assertThat(Presenter.parse("mermaid").describe(elided).getContent(),
+        containsString("    ... "));
+    assertThat(Presenter.parse("mermaid").describe(collapsed).getContent(),
+        containsString("class pkg_com_iluwatar_urm_testdomain[\"com.iluwatar.urm.testdomain\"]"));
+
+    for (String name : new String[] {"plantuml", "graphviz", "mermaid"}) {
+      Presenter presenter = Presenter.parse(name);
+      assertThat(presenter.describe(LevelOfDetail.full(domainClasses, edges)).getContent(),
+          is(presenter.describe(domainClasses, edges).getContent()));
+    }
+  }
+
+  @Test
+  public void skeletonShowsClassKindsAndEdgesOnly() {
+    LevelOfDetail skeleton = LevelOfDetail.full(domainClasses, edges).skeleton();
+
+    String plantUml = Presenter.parse("plantuml").describe(skeleton).getContent();
+    assertThat(plantUml, containsString(
+        "  interface Observer<S extends Observable<S, O, A>, O extends Observer, A>\n"));
+    assertThat(plantUml, containsString("Company -->  \"-employees\" Person"));
+    String graphviz = Presenter.parse("graphviz").describe(skeleton).getContent();
+    assertThat(graphviz,
+        containsString("Observer [ label = \"{\\<\\<interface\\>\\>\\nObserver}\" ]"));
+    String mermaid = Presenter.parse("mermaid").describe(skeleton).getContent();
+    assertThat(mermaid, containsString("  class Observer {\n<<interface>>\n  }\n"));
+    for (String content : new String[] {plantUml, graphviz, mermaid}) {
+      assertThat(content, not(containsString("update(")));
+    }
+  }
+
+  @Test
+  public void presenterOfClassListsRendersEveryLevelOfDetail() {
+    // lists every class with its number of listed members
+    Presenter presenter = new Presenter() {
+      @Override
+      public Representation describe(List<DomainClass> domainObjects, List<Edge> edges) {
+        return new Representation(countMembers(domainObjects, LevelOfDetail.UNLIMITED),
+            getFileEnding());
+      }
+
+      @Override
+      public void write(List<DomainClass> domainObjects, List<Edge> edges, int maxMembers,
+                        Appendable out) throws IOException {
+        out.append(countMembers(domainObjects, maxMembers));
+      }
+
+      @Override
+      public String getFileEnding() {
+        return "txt";
+      }
+    };
+
+    String collapsed = presenter.describe(LevelOfDetail.fit(domainClasses, edges, 1,
+        LevelOfDetail.UNLIMITED)).getContent();
+    assertThat(collapsed, is(presenter.describe(domainClasses, edges).getContent()));
+    for (LevelOfDetail detail : List.of(LevelOfDetail.fit(domainClasses, edges, 1, 1),
+        LevelOfDetail.fit(domainClasses, edges, domainClasses.size(), 1))) {
+      String elided = presenter.describe(detail).getContent();
+      assertThat(elided.lines().count(), is((long) domainClasses.size()));
+      assertThat(elided.lines().allMatch(line -> line.endsWith(" 0") || line.endsWith(" 1")),
+          is(true));
+      String skeleton = presenter.describe(detail.skeleton()).getContent();
+      assertThat(skeleton.lines().allMatch(line -> line.endsWith(" 0")), is(true));
+    }
+  }
+
+  @Test
+  public void writtenDiagramEqualsDescribedOne() throws Exception {
+    for (String name : new String[] {"plantuml", "graphviz", "mermaid"}) {
+      Presenter presenter = Presenter.parse(name, 4);
+      String described = presenter.describe(domainClasses, edges).getContent();
+
+      StringBuilder appended = new StringBuilder();
+      presenter.write(domainClasses, edges, appended);
+      assertThat(appended.toString(), is(described));
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      presenter.write(domainClasses, edges, Channels.newChannel(bytes));
+      assertThat(bytes.toString(StandardCharsets.UTF_8), is(described));
+
+      String sequential = Presenter.parse(name, 1).describe(domainClasses, edges).getContent();
+      assertThat(sequential, is(described));
+    }
+  }
+
+  private static String countMembers(List<DomainClass> domainClasses, int maxMembers) {
+    return domainClasses.stream()
+        .map(domainClass -> {
+          DomainMembers members = domainClass.getMembers(maxMembers);
+          return domainClass.getUmlName() + " " + (members.getFields().size()
+              + members.getConstructors().size() + members.getMethods().size());
+        })
+        .collect(Collectors.joining("\n"));
+  }
 }
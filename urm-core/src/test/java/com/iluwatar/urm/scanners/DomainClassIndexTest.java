@@ -0,0 +1,60 @@
+package com.iluwatar.urm.scanners;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.classpath.ClassDescriptor;
+import com.iluwatar.urm.classpath.ClassSnapshot;
+import com.iluwatar.urm.domain.DomainClassRegistry;
+import com.iluwatar.urm.testdomain.Company;
+import com.iluwatar.urm.testdomain.observ.Observer;
+import java.util.Arrays;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+public class DomainClassIndexTest {
+
+  private final DomainClassIndex index = new DomainClassIndex(
+      Arrays.asList(Company.class, Observer.class));
+
+  @Test
+  public void looksUpClasses() {
+    assertThat(index.contains(Company.class), is(true));
+    assertThat(index.contains(String.class), is(false));
+    assertThat(index.contains((Class<?>) null), is(false));
+    assertThat(index.size(), is(2));
+  }
+
+  @Test
+  public void looksUpTypeNames() {
+    assertThat(index.contains(Company.class.getName()), is(true));
+    assertThat(index.contains(Company.class.toString()), is(true));
+    assertThat(index.contains(Observer.class.toString()), is(true));
+    assertThat(index.contains("com/iluwatar/urm/testdomain/Company"), is(true));
+    assertThat(index.contains("class com/iluwatar/urm/testdomain/Company"), is(true));
+    assertThat(index.contains(String.class.toString()), is(false));
+  }
+
+  @Test
+  public void loadsClassesOnFirstLookup() {
+    DomainClassIndex lazy = new DomainClassIndex(
+        Arrays.asList(ClassSnapshot.of(Company.class).getDescriptor(), missingDescriptor()),
+        new ClassLoader[] {getClass().getClassLoader()}, new DomainClassRegistry());
+    assertThat(lazy.size(), is(2));
+    assertThat(lazy.contains("com.example.Missing"), is(true));
+    assertThat(lazy.get("com/iluwatar/urm/testdomain/Company"), is(sameInstance(Company.class)));
+    assertThat(lazy.contains(Company.class), is(true));
+    assertThat(lazy.get("com.example.Missing"), nullValue());
+  }
+
+  private static ClassDescriptor missingDescriptor() {
+    ClassWriter writer = new ClassWriter(0);
+    writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, "com/example/Missing", null,
+        "java/lang/Object", null);
+    writer.visitEnd();
+    return ClassDescriptor.read(writer.toByteArray());
+  }
+}
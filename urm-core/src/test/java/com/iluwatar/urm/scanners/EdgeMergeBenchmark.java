@@ -0,0 +1,94 @@
+package com.iluwatar.urm.scanners;
+
+import com.iluwatar.urm.DomainClassFinder;
+import com.iluwatar.urm.domain.Direction;
+import com.iluwatar.urm.domain.DomainClassRegistry;
+import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.domain.EdgeType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link EdgeOperations#mergeBiDirectionals(List)} with the previous implementation,
+ * {@link LegacyEdgeOperations}, on random raw edges between the classes of urm itself.
+ *
+ * <p>Not part of the test suite, run {@link #main(String[])} with the test classpath.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EdgeMergeBenchmark {
+
+  @Param({"10000", "500000"})
+  public int edgeCount;
+
+  private List<Edge> edges;
+
+  /**
+   * create the raw edges.
+   */
+  @Setup
+  public void setup() {
+    DomainClassFinder.ALLOW_FINDING_INTERNAL_CLASSES = true;
+    List<Class<?>> classes = DomainClassFinder.findClasses(
+        Collections.singletonList("com.iluwatar.urm"), Collections.emptyList(), null);
+    edges = randomEdges(classes, edgeCount, 42);
+  }
+
+  @Benchmark
+  public List<Edge> mergeBiDirectionals() {
+    return EdgeOperations.mergeBiDirectionals(edges);
+  }
+
+  @Benchmark
+  public List<Edge> legacyMergeBiDirectionals() {
+    return LegacyEdgeOperations.mergeBiDirectionals(edges);
+  }
+
+  /**
+   * create random cardinality edges, with duplicates and edges in both directions; like the
+   * edges of a run they share one domain class per class.
+   * @param classes classes to connect
+   * @param count number of edges
+   * @param seed seed of the random generator
+   * @return the edges
+   */
+  static List<Edge> randomEdges(List<Class<?>> classes, int count, long seed) {
+    Random random = new Random(seed);
+    DomainClassRegistry registry = new DomainClassRegistry();
+    List<Edge> edges = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Class<?> source = classes.get(random.nextInt(classes.size()));
+      Class<?> target = classes.get(random.nextInt(classes.size()));
+      EdgeType type = random.nextBoolean() ? EdgeType.ONE_TO_ONE : EdgeType.ONE_TO_MANY;
+      edges.add(new Edge(registry.get(source), "field" + random.nextInt(4),
+          registry.get(target), null, type, Direction.UNI_DIRECTIONAL));
+    }
+    return edges;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(EdgeMergeBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,150 @@
+package com.iluwatar.urm.scanners;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.DomainClassFinder;
+import com.iluwatar.urm.domain.Direction;
+import com.iluwatar.urm.domain.DomainClass;
+import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.domain.EdgeType;
+import com.iluwatar.urm.testdomain.Company;
+import com.iluwatar.urm.testdomain.family.Husband;
+import com.iluwatar.urm.testdomain.family.Wife;
+import com.iluwatar.urm.testdomain.person.Person;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EdgeOperationsTest {
+
+  private List<Class<?>> classes;
+
+  /**
+   * find the classes of the test domain.
+   */
+  @Before
+  public void setup() {
+    DomainClassFinder.ALLOW_FINDING_INTERNAL_CLASSES = true;
+    classes = DomainClassFinder.findClasses(
+        Collections.singletonList("com.iluwatar.urm.testdomain"), Collections.emptyList(), null);
+    assertThat(classes, is(not(empty())));
+  }
+
+  @Test
+  public void mergesReferencesInBothDirectionsOnTestDomain() {
+    FieldScanner scanner = new FieldScanner(classes);
+    List<Edge> rawEdges = new ArrayList<>();
+    for (Class<?> clazz : classes) {
+      rawEdges.addAll(scanner.getEdges(clazz));
+    }
+    List<String> merged = canonical(EdgeOperations.mergeBiDirectionals(rawEdges));
+    assertThat(merged, hasItems(canonical(List.of(
+        FieldScannerTest.createReference(Husband.class, "wife", Wife.class, "husband",
+            EdgeType.ONE_TO_ONE, Direction.BI_DIRECTIONAL),
+        FieldScannerTest.createReference(Company.class, "employees", Person.class, "company",
+            EdgeType.ONE_TO_MANY, Direction.BI_DIRECTIONAL))).toArray(new String[0])));
+    assertThat(merged, not(hasItem(canonical(List.of(
+        FieldScannerTest.createReference(Husband.class, "wife", Wife.class, null,
+            EdgeType.ONE_TO_ONE, Direction.UNI_DIRECTIONAL))).get(0))));
+  }
+
+  @Test
+  public void mergesReferencesInBothDirectionsOnRandomEdges() {
+    // at most one edge per direction and class pair, so every pair merges into one edge;
+    // classes sharing package and simple name are merged as one class and left out
+    Map<String, List<Class<?>>> classesByName = classes.stream().collect(Collectors.groupingBy(
+        clazz -> clazz.getPackageName() + "." + clazz.getSimpleName()));
+    List<Class<?>> distinctClasses = classesByName.values().stream()
+        .filter(sameName -> sameName.size() == 1)
+        .map(sameName -> sameName.get(0))
+        .collect(Collectors.toList());
+    Map<List<Class<?>>, Edge> edgeByDirection = new LinkedHashMap<>();
+    for (Edge edge : EdgeMergeBenchmark.randomEdges(distinctClasses, 2000, 7)) {
+      edgeByDirection.putIfAbsent(
+          List.of(edge.source.getClazz(), edge.target.getClazz()), edge);
+    }
+    List<Edge> expected = new ArrayList<>();
+    for (Map.Entry<List<Class<?>>, Edge> entry : edgeByDirection.entrySet()) {
+      Class<?> source = entry.getKey().get(0);
+      Class<?> target = entry.getKey().get(1);
+      Edge edge = entry.getValue();
+      Edge opposite = edgeByDirection.get(List.of(target, source));
+      if (source == target || opposite == null) {
+        expected.add(edge);
+      } else if (source.getName().compareTo(target.getName()) < 0) {
+        expected.add(new Edge(edge.source, edge.sourceDescription, opposite.source,
+            opposite.sourceDescription, EdgeType.resolveEdgeType(edge.type, opposite.type),
+            Direction.BI_DIRECTIONAL));
+      }
+    }
+    List<String> merged = canonical(
+        EdgeOperations.mergeBiDirectionals(new ArrayList<>(edgeByDirection.values())));
+    assertThat(merged, containsInAnyOrder(canonical(expected).toArray(new String[0])));
+  }
+
+  @Test
+  public void dropsDuplicates() {
+    Edge husbandToWife = new Edge(new DomainClass(Husband.class), "wife",
+        new DomainClass(Wife.class), null, EdgeType.ONE_TO_ONE, Direction.UNI_DIRECTIONAL);
+    Edge sameEdge = new Edge(new DomainClass(Husband.class), "wife",
+        new DomainClass(Wife.class), null, EdgeType.ONE_TO_ONE, Direction.UNI_DIRECTIONAL);
+    List<Edge> edges = EdgeOperations.mergeBiDirectionals(List.of(husbandToWife, sameEdge));
+    assertThat(edges.size(), is(1));
+  }
+
+  @Test
+  public void relationsFindTheSameRelationsAsTheEdgeList() {
+    // every edge with an existing relation replaces it by a one to many edge, as field edges do
+    List<Edge> list = new ArrayList<>();
+    EdgeOperations.Relations relations = new EdgeOperations.Relations();
+    for (Edge edge : EdgeMergeBenchmark.randomEdges(classes, 2000, 11)) {
+      Optional<Edge> relation = EdgeOperations.getMatchingRelation(list, edge);
+      assertThat(relations.contains(edge), is(EdgeOperations.relationAlreadyExists(list, edge)));
+      assertThat(relations.getMatching(edge), is(relation));
+      if (relation.isPresent()) {
+        Edge oneToMany = new Edge(relation.get().source, relation.get().sourceDescription,
+            relation.get().target, relation.get().targetDescription, EdgeType.ONE_TO_MANY,
+            relation.get().direction);
+        list.remove(relation.get());
+        list.add(oneToMany);
+        relations.removeMatching(edge);
+        relations.add(oneToMany);
+      } else {
+        list.add(edge);
+        relations.add(edge);
+      }
+    }
+    assertThat(relations.toList(), is(list));
+  }
+
+  /**
+   * which end of a bidirectional edge is its source depends on the iteration order of a hash map
+   * if the simple names of both classes collide, so both ends are compared as a sorted pair.
+   */
+  private static List<String> canonical(List<Edge> edges) {
+    return edges.stream()
+        .map(edge -> {
+          String source = edge.source.getClazz().getName() + "#" + edge.sourceDescription;
+          String target = edge.target.getClazz().getName() + "#" + edge.targetDescription;
+          if (edge.direction == Direction.BI_DIRECTIONAL && source.compareTo(target) > 0) {
+            String swap = source;
+            source = target;
+            target = swap;
+          }
+          return source + " " + edge.type + " " + edge.direction + " " + target;
+        })
+        .collect(Collectors.toList());
+  }
+}
@@ -1,9 +1,14 @@
 package com.iluwatar.urm.scanners;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 
+import com.iluwatar.urm.DomainClassFinder;
 import com.iluwatar.urm.domain.Direction;
 import com.iluwatar.urm.domain.DomainClass;
 import com.iluwatar.urm.domain.Edge;
@@ -22,7 +27,10 @@ import com.iluwatar.urm.testdomain.person.Manager;
 import com.iluwatar.urm.testdomain.person.Person;
 import com.iluwatar.urm.testdomain.weirdos.Outer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -177,6 +185,14 @@ public class FieldScannerTest {
     assertThat(edges, containsInAnyOrder(staticInnerClassToOuter));
   }
 
+  @Test
+  public void testInnerClassOfAnUnknownOuterClass() {
+    testedSetOfDomainClasses.add(Outer.Inner.class);
+    testedSetOfDomainClasses.add(Outer.StaticInner.class);
+    List<Edge> edges = resolveEdges(testedSetOfDomainClasses);
+    assertThat(edges.size(), is(0));
+  }
+
   @Test
   public void testInnerReferencingOuter() {
     testedSetOfDomainClasses.add(Outer.InnerReferencingOuter.class);
@@ -209,6 +225,95 @@ public class FieldScannerTest {
     assertThat(edges, containsInAnyOrder(outerReferencingMultipleInner));
   }
 
+  @Test
+  public void testSameEdgesOnAnyNumberOfThreads() {
+    DomainClassFinder.ALLOW_FINDING_INTERNAL_CLASSES = true;
+    testedSetOfDomainClasses.addAll(DomainClassFinder.findClasses(
+        Collections.singletonList("com.iluwatar.urm.testdomain"), Collections.emptyList(), null));
+    DomainClassIndex index = new DomainClassIndex(testedSetOfDomainClasses);
+    List<Edge> sequential = new FieldScanner(testedSetOfDomainClasses, index, 1).getEdges();
+    List<Edge> parallel = new FieldScanner(testedSetOfDomainClasses, index, 4).getEdges();
+    assertThat(sequential, is(not(empty())));
+    assertThat(parallel, is(sequential));
+  }
+
+  @Test
+  public void edgesShareTheDomainClassesOfTheIndex() {
+    testedSetOfDomainClasses.add(Mother.class);
+    testedSetOfDomainClasses.add(Child.class);
+    DomainClassIndex index = new DomainClassIndex(testedSetOfDomainClasses);
+    List<Edge> edges = new FieldScanner(testedSetOfDomainClasses, index).getEdges();
+    for (Edge edge : edges) {
+      assertThat(edge.source, is(sameInstance(index.getRegistry().get(Mother.class))));
+      assertThat(edge.target, is(sameInstance(index.getRegistry().get(Child.class))));
+    }
+  }
+
+  @Test
+  public void testArrayAndNestedTypeArgumentReferences() {
+    testedSetOfDomainClasses.add(Library.class);
+    testedSetOfDomainClasses.add(Catalog.class);
+    testedSetOfDomainClasses.add(Book.class);
+    testedSetOfDomainClasses.add(Author.class);
+    List<Edge> edges = resolveEdges(testedSetOfDomainClasses);
+    assertThat(edges, containsInAnyOrder(
+        createReference(Library.class, "shelf", Book.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Library.class, "authors", Author.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Catalog.class, "booksByAuthor", Book.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Catalog.class, "booksByAuthor", Author.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Book.class, "author", Author.class, null,
+            EdgeType.ONE_TO_ONE, Direction.UNI_DIRECTIONAL)));
+  }
+
+  @Test
+  public void testTypeArgumentsOfUnknownClassesAreIgnored() {
+    testedSetOfDomainClasses.add(Library.class);
+    testedSetOfDomainClasses.add(Catalog.class);
+    List<Edge> edges = resolveEdges(testedSetOfDomainClasses);
+    assertThat(edges.size(), is(0));
+  }
+
+  @Test
+  public void testArraysInTypeArgumentsOfADomainClass() {
+    testedSetOfDomainClasses.add(Loan.class);
+    testedSetOfDomainClasses.add(Holder.class);
+    testedSetOfDomainClasses.add(Author.class);
+    List<Edge> edges = resolveEdges(testedSetOfDomainClasses);
+    assertThat(edges, contains(
+        createReference(Loan.class, "borrowers", Holder.class, null,
+            EdgeType.ONE_TO_ONE, Direction.UNI_DIRECTIONAL)));
+  }
+
+  @Test
+  public void testTypeArgumentsOfWrappersAreNoReferences() {
+    testedSetOfDomainClasses.add(Loan.class);
+    testedSetOfDomainClasses.add(Book.class);
+    List<Edge> edges = resolveEdges(testedSetOfDomainClasses);
+    assertThat(edges.size(), is(0));
+  }
+
+  @Test
+  public void testElementsOfCollectionsOutsideTheClassLibrary() {
+    testedSetOfDomainClasses.add(Archive.class);
+    testedSetOfDomainClasses.add(Shelf.class);
+    testedSetOfDomainClasses.add(Book.class);
+    testedSetOfDomainClasses.add(Author.class);
+    List<Edge> edges = resolveEdges(testedSetOfDomainClasses);
+    assertThat(edges, containsInAnyOrder(
+        createReference(Archive.class, "books", Book.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Archive.class, "authorsByName", Shelf.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Archive.class, "authorsByName", Author.class, null,
+            EdgeType.ONE_TO_MANY, Direction.UNI_DIRECTIONAL),
+        createReference(Book.class, "author", Author.class, null,
+            EdgeType.ONE_TO_ONE, Direction.UNI_DIRECTIONAL)));
+  }
+
   @After
   public void cleanup() {
     testedSetOfDomainClasses = null;
@@ -233,10 +338,48 @@ public class FieldScannerTest {
                                      Class<?> target, String targetDescription,
                                      EdgeType type, Direction direction) {
     return new Edge(
-        new DomainClass(source, sourceDescription),
-        new DomainClass(target, targetDescription),
+        new DomainClass(source),
+        sourceDescription,
+        new DomainClass(target),
+        targetDescription,
         type,
         direction
     );
   }
+
+  private static class Library {
+    private Book[] shelf;
+    private List<Author>[] authors;
+  }
+
+  private static class Catalog {
+    private Map<String, Map<Author, List<? extends Book>>> booksByAuthor;
+  }
+
+  private static class Book {
+    private Author author;
+    private String[] pages;
+  }
+
+  private static class Author {
+  }
+
+  private static class Loan {
+    private Optional<Book> book;
+    private Holder<Author[]> borrowers;
+  }
+
+  private static class Holder<T> {
+  }
+
+  private static class Archive {
+    private Bag<Book> books;
+    private Map<String, Shelf<Author>> authorsByName;
+  }
+
+  private static class Bag<T> extends ArrayList<T> {
+  }
+
+  private static class Shelf<T> extends ArrayList<T> {
+  }
 }
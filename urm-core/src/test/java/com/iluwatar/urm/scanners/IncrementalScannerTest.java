@@ -0,0 +1,119 @@
+package com.iluwatar.urm.scanners;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+import com.iluwatar.urm.DomainClassFinder;
+import com.iluwatar.urm.domain.Edge;
+import com.iluwatar.urm.testdomain.Company;
+import com.iluwatar.urm.testdomain.Task;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalScannerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<Class<?>> classes;
+  private Path stateFile;
+
+  /**
+   * find the classes of the test domain.
+   */
+  @Before
+  public void setup() {
+    DomainClassFinder.ALLOW_FINDING_INTERNAL_CLASSES = true;
+    classes = DomainClassFinder.findClasses(
+        Collections.singletonList("com.iluwatar.urm.testdomain"), Collections.emptyList(), null);
+    assertThat(classes, is(not(empty())));
+    stateFile = folder.getRoot().toPath().resolve("urm.state");
+  }
+
+  @Test
+  public void firstRunScansAllClasses() {
+    IncrementalScanner scanner = scanner(classes);
+    assertThat(scanner.getEdges(), is(fullScan(classes)));
+    assertThat(scanner.getRescannedClasses().size(), is(classes.size()));
+  }
+
+  @Test
+  public void unchangedClassesAreNotRescanned() {
+    scanner(classes).getEdges();
+
+    IncrementalScanner scanner = scanner(classes);
+    assertThat(scanner.getEdges(), is(fullScan(classes)));
+    assertThat(scanner.getRescannedClasses(), is(empty()));
+  }
+
+  @Test
+  public void changedClassIsRescanned() throws Exception {
+    scanner(classes).getEdges();
+    Path classFile = Paths.get(Company.class.getResource("Company.class").toURI());
+    FileTime lastModified = Files.getLastModifiedTime(classFile);
+    try {
+      Files.setLastModifiedTime(classFile, FileTime.fromMillis(lastModified.toMillis() + 1000));
+
+      IncrementalScanner scanner = scanner(classes);
+      assertThat(scanner.getEdges(), is(fullScan(classes)));
+      assertThat(scanner.getRescannedClasses(), containsInAnyOrder(Company.class.getName()));
+    } finally {
+      Files.setLastModifiedTime(classFile, lastModified);
+    }
+  }
+
+  @Test
+  public void removedClassRescansClassesReferencingIt() {
+    scanner(classes).getEdges();
+    List<Class<?>> remaining = new ArrayList<>(classes);
+    remaining.remove(Task.class);
+
+    IncrementalScanner scanner = scanner(remaining);
+    assertThat(scanner.getEdges(), is(fullScan(remaining)));
+    assertThat(scanner.getRescannedClasses().isEmpty(), is(false));
+  }
+
+  @Test
+  public void unreadableStateFallsBackToFullScan() throws Exception {
+    Files.write(stateFile, new byte[] {1, 2, 3});
+
+    IncrementalScanner scanner = scanner(classes);
+    assertThat(scanner.getEdges(), is(fullScan(classes)));
+    assertThat(scanner.getRescannedClasses().size(), is(classes.size()));
+  }
+
+  @Test
+  public void classesInJarsAreFingerprintedByTheirEntries() throws Exception {
+    Path jar = Paths.get(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    try (JarFile jarFile = new JarFile(jar.toFile())) {
+      JarEntry entry = jarFile.getJarEntry(Test.class.getName().replace('.', '/') + ".class");
+      assertThat(IncrementalScanner.fingerprint(Test.class),
+          is(entry.getSize() + ":" + entry.getCrc()));
+    }
+  }
+
+  private IncrementalScanner scanner(List<Class<?>> classes) {
+    return new IncrementalScanner(classes, new FieldScanner(classes),
+        new HierarchyScanner(classes), stateFile);
+  }
+
+  private static List<Edge> fullScan(List<Class<?>> classes) {
+    List<Edge> edges = new ArrayList<>(new FieldScanner(classes).getEdges());
+    edges.addAll(new HierarchyScanner(classes).getEdges());
+    return edges;
+  }
+}
@@ -2,16 +2,22 @@ package com.iluwatar.urm;
 
 import static java.util.stream.Collectors.toList;
 
+import com.iluwatar.urm.classpath.ClassFiles;
+import com.iluwatar.urm.domain.Sharding;
 import com.iluwatar.urm.presenters.Presenter;
-import com.iluwatar.urm.presenters.Representation;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
@@ -47,6 +53,24 @@ public class DomainMapperMojo extends AbstractMojo {
   private boolean includeMainDirectory;
   @Parameter(property = "includeTestDirectory", defaultValue = "false")
   private boolean includeTestDirectory;
+  @Parameter(property = "map.threads", required = false)
+  private Integer threads;
+  @Parameter(property = "map.cacheDirectory", required = false)
+  private File cacheDirectory;
+  @Parameter(property = "map.cacheSize", defaultValue = "256")
+  private long cacheSize;
+  @Parameter(property = "map.stateFile", required = false)
+  private File stateFile;
+  @Parameter(property = "map.maxNodes", required = false)
+  private Integer maxNodes;
+  @Parameter(property = "map.maxMembers", required = false)
+  private Integer maxMembers;
+  @Parameter(property = "map.skeleton", defaultValue = "false")
+  private boolean skeleton;
+  @Parameter(property = "map.bytecodeMembers", defaultValue = "false")
+  private boolean bytecodeMembers;
+  @Parameter(property = "map.shardBy", required = false)
+  private String shardBy;
 
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
@@ -62,10 +86,16 @@ public class DomainMapperMojo extends AbstractMojo {
     if (packages.isEmpty()) {
       throw new MojoFailureException("No packages defined for scanning.");
     }
-    try {
-      Presenter selectedPresenter = Presenter.parse(this.presenter);
+    // the jars read for the diagram are closed once no other goal reads them, the build may
+    // rewrite them afterwards
+    try (Closeable classFiles = ClassFiles.useShared()) {
+      ScanOptions scanOptions = getScanOptions();
+      Presenter selectedPresenter = Presenter.parse(this.presenter, scanOptions.getThreads());
+      Sharding sharding = getSharding();
 
-      String fileName = project.getName() + ".urm." + selectedPresenter.getFileEnding();
+      // sharded output is checked and written through its index
+      String fileName = project.getName() + ".urm."
+          + (sharding == null ? selectedPresenter.getFileEnding() : "md");
       Path path = Paths.get(outputDirectory.getPath(), fileName);
       Path dir = path.getParent();
       if (dir != null) {
@@ -81,10 +111,14 @@ public class DomainMapperMojo extends AbstractMojo {
       if (!Files.exists(path)) {
         List<URL> projectClasspathList = getClasspathUrls();
         DomainMapper mapper = DomainMapper.create(selectedPresenter, packages, ignores,
-            new URLClassLoader(projectClasspathList.toArray(new URL[projectClasspathList.size()])));
+            new URLClassLoader(projectClasspathList.toArray(new URL[projectClasspathList.size()])),
+            scanOptions);
 
-        Representation representation = mapper.describeDomain();
-        Files.write(path, representation.getContent().getBytes());
+        if (sharding != null) {
+          mapper.writeShards(sharding, path);
+        } else {
+          writeDomain(mapper, path);
+        }
         getLog().info(fileName + " successfully written to: \""
             + path
             + "\"!");
@@ -96,6 +130,74 @@ public class DomainMapperMojo extends AbstractMojo {
     }
   }
 
+  /**
+   * write the diagram into a temporary file that replaces the target once it is complete, a
+   * partly written diagram would count as up to date in later builds.
+   */
+  private static void writeDomain(DomainMapper mapper, Path path) throws IOException {
+    Path temp = Files.createTempFile(path.toAbsolutePath().getParent(),
+        path.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        mapper.writeDomain(channel);
+      }
+      try {
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private ScanOptions getScanOptions() throws MojoFailureException {
+    ScanOptions scanOptions = new ScanOptions();
+    if (threads != null) {
+      if (threads < 1) {
+        throw new MojoFailureException("threads must be at least 1, got " + threads);
+      }
+      scanOptions.setThreads(threads);
+    }
+    if (cacheDirectory != null) {
+      if (cacheSize < 0) {
+        throw new MojoFailureException("cacheSize must not be negative, got " + cacheSize);
+      }
+      scanOptions.setCacheDirectory(cacheDirectory.toPath());
+      scanOptions.setCacheSize(cacheSize * 1024 * 1024);
+    }
+    if (stateFile != null) {
+      scanOptions.setStateFile(stateFile.toPath());
+    }
+    if (maxNodes != null) {
+      if (maxNodes < 1) {
+        throw new MojoFailureException("maxNodes must be at least 1, got " + maxNodes);
+      }
+      scanOptions.setMaxNodes(maxNodes);
+    }
+    scanOptions.setSkeleton(skeleton);
+    scanOptions.setMembersFromBytecode(bytecodeMembers);
+    if (maxMembers != null) {
+      if (maxMembers < 0) {
+        throw new MojoFailureException("maxMembers must not be negative, got " + maxMembers);
+      }
+      scanOptions.setMaxMembers(maxMembers);
+    }
+    return scanOptions;
+  }
+
+  private Sharding getSharding() throws MojoFailureException {
+    if (shardBy == null) {
+      return null;
+    }
+    try {
+      return Sharding.parse(shardBy);
+    } catch (IllegalArgumentException e) {
+      throw new MojoFailureException(e.getMessage());
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<URL> getClasspathUrls() throws DependencyResolutionRequiredException,
       MojoExecutionException {